@@ -0,0 +1,5 @@
+#!/usr/bin/env bash
+# Builds and runs the JMH benchmarks, extra arguments are passed to JMH
+# (e.g. ./bench.sh MoveGeneration to run only the matching benchmarks)
+mvn -B -q -f bench/pom.xml package
+java -jar bench/target/benchmarks.jar -prof gc "$@"
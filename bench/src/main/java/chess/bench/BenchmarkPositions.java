@@ -0,0 +1,43 @@
+package chess.bench;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import chess.core.Board;
+
+/**
+ * The fixed set of positions that the board benchmarks run on, every benchmark
+ * that uses this state is run once for each phase of the game.
+ */
+@State(Scope.Thread)
+public class BenchmarkPositions {
+    public static final String OPENING = "r1bqkbnr/pppp1ppp/2n5/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R w KQkq - 2 3";
+    public static final String MIDDLEGAME = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+    public static final String ENDGAME = "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1";
+
+    @Param({ "opening", "middlegame", "endgame" })
+    public String phase;
+
+    public String fen;
+    public Board board;
+
+    @Setup
+    public void setUp() {
+        switch (phase) {
+            case "opening":
+                fen = OPENING;
+                break;
+            case "middlegame":
+                fen = MIDDLEGAME;
+                break;
+            case "endgame":
+                fen = ENDGAME;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown phase: " + phase);
+        }
+        board = new Board(fen);
+    }
+}
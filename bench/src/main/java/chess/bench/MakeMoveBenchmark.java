@@ -0,0 +1,89 @@
+package chess.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import chess.core.Board;
+import chess.core.Board.IllegalMove;
+import chess.core.Move;
+import chess.core.MoveList;
+
+/**
+ * Plays and takes back every legal move of the position, one operation is a
+ * full pass over the moves.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MakeMoveBenchmark {
+    private final MoveList packedMoves = new MoveList();
+    // The legal moves of every child of the position, by the index of the move
+    // in packedMoves
+    private final List<List<Move>> childMoves = new ArrayList<>();
+    private int nextChild;
+
+    @Setup
+    public void setUp(BenchmarkPositions positions) {
+        Board board = positions.board;
+        board.generateMoves(packedMoves);
+        for (int i = 0; i < packedMoves.size(); i++) {
+            board.makeLegalMove(packedMoves.get(i));
+            childMoves.add(board.generateMoves());
+            board.undoMove();
+        }
+    }
+
+    /**
+     * Unchecked make and undo of packed moves, the path used by perft and search.
+     */
+    @Benchmark
+    public long makeUndoPacked(BenchmarkPositions positions) {
+        Board board = positions.board;
+        long keys = 0;
+        for (int i = 0; i < packedMoves.size(); i++) {
+            board.makeLegalMove(packedMoves.get(i));
+            keys ^= board.getPositionKey();
+            board.undoMove();
+        }
+        return keys;
+    }
+
+    /**
+     * Make and undo of move objects, every move is validated which includes the
+     * legality check through move generation. The board caches the legal moves
+     * of its position, so the pass runs on the next child of the position, which
+     * is never the position of the previous pass: the moves are generated once by
+     * the first move of the pass and the rest of the moves are looked up. The
+     * time includes playing and taking back the root move.
+     */
+    @Benchmark
+    public long makeUndoChecked(BenchmarkPositions positions) throws IllegalMove {
+        Board board = positions.board;
+        board.makeLegalMove(packedMoves.get(nextChild));
+        List<Move> moves = childMoves.get(nextChild);
+        nextChild = (nextChild + 1) % packedMoves.size();
+        long keys = 0;
+        for (Move move : moves) {
+            board.makeMove(move);
+            keys ^= board.getPositionKey();
+            board.undoMove();
+        }
+        board.undoMove();
+        return keys;
+    }
+}
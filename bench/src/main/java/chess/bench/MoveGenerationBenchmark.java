@@ -0,0 +1,62 @@
+package chess.bench;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import chess.core.Board;
+import chess.core.Move;
+import chess.core.MoveList;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MoveGenerationBenchmark {
+    private final MoveList moves = new MoveList();
+    private final MoveList rootMoves = new MoveList();
+    private int nextRootMove;
+
+    @Setup
+    public void setUp(BenchmarkPositions positions) {
+        positions.board.generateMoves(rootMoves);
+    }
+
+    /**
+     * Legal move generation into a reused list of packed moves.
+     */
+    @Benchmark
+    public MoveList generatePackedMoves(BenchmarkPositions positions) {
+        positions.board.generateMoves(moves);
+        return moves;
+    }
+
+    /**
+     * Legal move generation into a list of move objects, as used by the UI and
+     * the PGN parser. The board caches the legal moves of its position, so every
+     * call generates the moves of the next child of the position instead, which
+     * is never the position of the previous call. The time includes playing and
+     * taking back the root move.
+     */
+    @Benchmark
+    public List<Move> generateMoves(BenchmarkPositions positions) {
+        Board board = positions.board;
+        board.makeLegalMove(rootMoves.get(nextRootMove));
+        nextRootMove = (nextRootMove + 1) % rootMoves.size();
+        List<Move> moves = board.generateMoves();
+        board.undoMove();
+        return moves;
+    }
+}
@@ -0,0 +1,66 @@
+package chess.bench;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import chess.core.Board;
+import chess.core.PGNParser;
+import chess.core.PGNParser.InvalidPGNException;
+
+/**
+ * Reading and writing games and positions.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class NotationBenchmark {
+    // A 44 move game with castling, checks and captures
+    private static final String GAME = "1. d4 d5 2. c4 dxc4 3. Nf3 Nf6 4. Qa4+ Nbd7 5. g3 a6 6. Qxc4 b5 7. Qc2 Bb7 "
+            + "8. Bg2 e6 9. O-O c5 10. a4 Rc8 11. axb5 axb5 12. Qb3 Qb6 13. Rd1 Bxf3 14. Qxf3 cxd4 15. Ra8 Rb8 "
+            + "16. Bd2 Bd6 17. Rxb8+ Nxb8 18. Na3 O-O 19. Qb3 Bxa3 20. bxa3 Nc6 21. a4 Na7 22. Rb1 Rb8 23. Bf4 Rc8 "
+            + "24. e3 Ng4 25. Bf3 Rc3 26. Qa2 e5 27. Bg5 h6 28. Be7 Nf6 29. Bb4 Rc8 30. exd4 Qxd4 31. a5 e4 "
+            + "32. Be2 Nd5 33. Be1 Nc3 34. Bxc3 Rxc3 35. Rd1 Qf6 36. Qd5 Qe6 37. Qa8+ Nc8 38. a6 Rc2 39. a7 Kh7 "
+            + "40. Bxb5 Qf5 41. Rf1 Nxa7 42. Ba4 Rc7 43. Re1 Nc8 44. Qxe4";
+
+    private Board playedGame;
+
+    @Setup
+    public void setUp() throws InvalidPGNException {
+        playedGame = new Board();
+        PGNParser.loadPGN(playedGame, GAME);
+    }
+
+    @Benchmark
+    public Board loadPGN() throws InvalidPGNException {
+        Board board = new Board();
+        PGNParser.loadPGN(board, GAME);
+        return board;
+    }
+
+    @Benchmark
+    public String writePGN() {
+        StringWriter out = new StringWriter();
+        PGNParser.writePGN(new PrintWriter(out), playedGame);
+        return out.toString();
+    }
+
+    @Benchmark
+    public Board loadFEN(BenchmarkPositions positions) {
+        return new Board(positions.fen);
+    }
+}
@@ -0,0 +1,3 @@
+#!/usr/bin/env bash
+javac -d bin src/chess/*.java src/chess/core/*.java src/chess/engine/*.java src/chess/UI/*.java
+java -cp bin:src chess.SearchApplication "$@"
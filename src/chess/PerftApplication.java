@@ -0,0 +1,98 @@
+package chess;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import chess.core.Board;
+import chess.core.ParallelPerft;
+import chess.core.Perft;
+import chess.core.Perft.ReferencePosition;
+
+/**
+ * Headless entry point for running perft from the command line.
+ * 
+ * <pre>
+ * PerftApplication &lt;fen&gt; &lt;depth&gt;    prints the divide counts of the position
+ * PerftApplication --suite [max depth] runs the reference positions
+ * </pre>
+ * 
+ * Both can be prefixed with {@code --threads <n>} to count on multiple threads.
+ */
+public class PerftApplication {
+    private static final int DEFAULT_SUITE_DEPTH = 5;
+
+    // The pool used for counting, null if perft runs on the calling thread
+    private static ForkJoinPool pool;
+
+    public static void main(String[] args) {
+        if (args.length >= 2 && args[0].equals("--threads")) {
+            pool = new ForkJoinPool(Integer.parseInt(args[1]));
+            args = Arrays.copyOfRange(args, 2, args.length);
+        }
+
+        if (args.length >= 1 && args[0].equals("--suite")) {
+            int maxDepth = args.length >= 2 ? Integer.parseInt(args[1]) : DEFAULT_SUITE_DEPTH;
+            System.exit(runSuite(maxDepth) ? 0 : 1);
+        } else if (args.length == 2) {
+            divide(args[0], Integer.parseInt(args[1]));
+        } else {
+            System.err.println("usage: PerftApplication [--threads <n>] <fen> <depth>");
+            System.err.println("       PerftApplication [--threads <n>] --suite [max depth]");
+            System.exit(2);
+        }
+    }
+
+    private static void divide(String fen, int depth) {
+        long start = System.nanoTime();
+        Map<String, Long> counts = pool == null
+                ? Perft.divide(new Board(fen), depth)
+                : ParallelPerft.divide(new Board(fen), depth, pool);
+        long elapsed = System.nanoTime() - start;
+
+        long nodes = 0;
+        for (Map.Entry<String, Long> entry : counts.entrySet()) {
+            System.out.println(entry.getKey() + ": " + entry.getValue());
+            nodes += entry.getValue();
+        }
+        System.out.println();
+        System.out.println("Moves: " + counts.size());
+        printResult(nodes, elapsed);
+    }
+
+    /**
+     * Runs every reference position up to the specified depth and checks the
+     * node counts.
+     * 
+     * @return True if all of the counts matched
+     */
+    private static boolean runSuite(int maxDepth) {
+        boolean passed = true;
+        long totalNodes = 0, totalElapsed = 0;
+        for (ReferencePosition position : Perft.REFERENCE_POSITIONS) {
+            int depth = Math.min(maxDepth, position.getMaxDepth());
+            long start = System.nanoTime();
+            long nodes = pool == null
+                    ? Perft.perft(new Board(position.getFEN()), depth)
+                    : ParallelPerft.perft(new Board(position.getFEN()), depth, pool);
+            long elapsed = System.nanoTime() - start;
+
+            boolean matches = nodes == position.getNodes(depth);
+            passed &= matches;
+            totalNodes += nodes;
+            totalElapsed += elapsed;
+            System.out.printf("%-16s depth %d  %12d nodes  %8.3f s  %12d nps  %s%n",
+                    position.getName(), depth, nodes, elapsed / 1e9, Perft.nodesPerSecond(nodes, elapsed),
+                    matches ? "ok" : "FAILED (expected " + position.getNodes(depth) + ")");
+        }
+        System.out.println();
+        printResult(totalNodes, totalElapsed);
+        return passed;
+    }
+
+    private static void printResult(long nodes, long elapsed) {
+        System.out.println("Nodes: " + nodes);
+        System.out.printf("Time: %.3f s%n", elapsed / 1e9);
+        System.out.println("NPS: " + Perft.nodesPerSecond(nodes, elapsed));
+    }
+}
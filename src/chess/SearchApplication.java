@@ -0,0 +1,83 @@
+package chess;
+
+import chess.core.Board;
+import chess.engine.ParallelSearch;
+import chess.engine.SearchLimits;
+import chess.engine.SearchResult;
+import chess.engine.TranspositionTable;
+
+/**
+ * Headless entry point for searching a position from the command line.
+ * 
+ * <pre>
+ * SearchApplication [--depth &lt;n&gt;] [--nodes &lt;n&gt;] [--time &lt;ms&gt;] [--hash &lt;mb&gt;] [--threads &lt;n&gt;] [fen]
+ * </pre>
+ * 
+ * Prints the result of every iteration and the best move, the starting position
+ * is searched if no FEN string is given. With more than one thread the node
+ * limit only counts the nodes of the main thread.
+ */
+public class SearchApplication {
+    private static final int DEFAULT_DEPTH = 8;
+    private static final int DEFAULT_HASH_MEGABYTES = 64;
+    private static final int DEFAULT_THREADS = 1;
+
+    public static void main(String[] args) {
+        SearchLimits limits = SearchLimits.NONE;
+        boolean limited = false;
+        int hashMegabytes = DEFAULT_HASH_MEGABYTES;
+        int threads = DEFAULT_THREADS;
+        String fen = null;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--depth":
+                        limits = limits.withDepth(Integer.parseInt(args[++i]));
+                        break;
+                    case "--nodes":
+                        limits = limits.withNodes(Long.parseLong(args[++i]));
+                        break;
+                    case "--time":
+                        limits = limits.withTime(Long.parseLong(args[++i]));
+                        break;
+                    case "--hash":
+                        hashMegabytes = Integer.parseInt(args[++i]);
+                        continue;
+                    case "--threads":
+                        threads = Integer.parseInt(args[++i]);
+                        continue;
+                    default:
+                        if (fen != null) {
+                            throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+                        }
+                        fen = args[i];
+                        continue;
+                }
+                limited = true;
+            }
+        } catch (RuntimeException e) {
+            System.err.println(e.getMessage());
+            System.err.println("usage: SearchApplication [--depth <n>] [--nodes <n>] [--time <ms>] [--hash <mb>] [--threads <n>] [fen]");
+            System.exit(2);
+        }
+        if (!limited) {
+            limits = SearchLimits.depth(DEFAULT_DEPTH);
+        }
+
+        Board board = fen == null ? new Board() : new Board(fen);
+        TranspositionTable table = new TranspositionTable(hashMegabytes);
+        SearchResult result = new ParallelSearch(threads, table).search(board, limits, System.out::println);
+        System.out.println();
+        System.out.println("Best move: " + (result.getBestMove() == null ? "none" : result.getBestMove()));
+        System.out.println("Nodes: " + result.getNodes());
+        System.out.printf("Time: %.3f s%n", result.getElapsedNanos() / 1e9);
+        System.out.println("NPS: " + result.getNodesPerSecond());
+        if (result.getThreadCount() > 1) {
+            for (int i = 0; i < result.getThreadCount(); i++) {
+                System.out.printf("Thread %d: %12d nodes  %12d nps%n", i, result.getThreadNodes(i),
+                        result.getThreadNodesPerSecond(i));
+            }
+        }
+        System.out.println("Hash usage: " + table.getUsage() / 10.0 + " %");
+    }
+}
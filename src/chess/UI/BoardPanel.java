@@ -52,7 +52,7 @@ public class BoardPanel extends JPanel {
 
         for (int row = 0; row < Board.HEIGHT; row++) {
             for (int col = 0; col < Board.WIDTH; col++) {
-                squares[row][col] = new SquareComponent(new Square(row, col));
+                squares[row][col] = new SquareComponent(Square.of(row, col));
                 squares[row][col].setPiece(board.getPiece(row, col));
                 squares[row][col].addActionListener(onSquareClick);
                 this.add(squares[row][col]);
@@ -85,7 +85,7 @@ public class BoardPanel extends JPanel {
             JFrame topFrame = (JFrame) SwingUtilities.getWindowAncestor(this);
             PieceChooser pieceChooser = new PieceChooser(topFrame, board.getActiveColor());
             PieceType type = pieceChooser.showChooser();
-            move.setPromotionTo(type);
+            move = move.withPromotionTo(type);
         }
 
         board.makeMove(move);
@@ -158,8 +158,15 @@ public class BoardPanel extends JPanel {
         setSelectedSquare(null);
         for (int row = 0; row < squares.length; row++) {
             for (int col = 0; col < squares[row].length; col++) {
-                squares[row][col].setPiece(board.getPiece(row, col));
+                Piece piece = board.getPiece(row, col);
+                squares[row][col].setPiece(piece);
                 squares[row][col].setSelected(false);
+
+                // Mark the king of the active player if it is in check
+                boolean isChecked = piece != null && piece.getType() == PieceType.King
+                        && piece.getColor() == board.getActiveColor()
+                        && board.isSquareAttacked(Square.of(row, col), piece.getColor().getInverse());
+                squares[row][col].setChecked(isChecked);
             }
         }
 
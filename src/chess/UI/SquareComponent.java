@@ -11,10 +11,12 @@ import java.awt.geom.*;
 public class SquareComponent extends JButton {
     private Color backgroundColor;
     private Color highlightColor;
+    private static final Color checkColor = new Color(230, 65, 65);
 
     private Square pos;
     private Piece piece;
     private boolean isTarget = false;
+    private boolean isChecked = false;
 
     public SquareComponent(Square pos) {
         this.pos = pos;
@@ -64,7 +66,9 @@ public class SquareComponent extends JButton {
                 RenderingHints.VALUE_INTERPOLATION_BILINEAR);
         g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
 
-        if (this.isSelected()) {
+        if (isChecked) {
+            g2d.setColor(checkColor);
+        } else if (this.isSelected()) {
             g2d.setColor(highlightColor);
         } else {
             g2d.setColor(backgroundColor);
@@ -108,6 +112,16 @@ public class SquareComponent extends JButton {
         this.isTarget = isTarget;
     }
 
+    /**
+     * Marks or clears the check flag for the square, the square of a king in check
+     * is painted red.
+     * 
+     * @param isChecked If true than marks the square as checked else clears mark
+     */
+    public void setChecked(boolean isChecked) {
+        this.isChecked = isChecked;
+    }
+
     /**
      * Returns the position of the square.
      * 
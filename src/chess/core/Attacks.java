@@ -0,0 +1,325 @@
+package chess.core;
+
+/**
+ * Precomputed attack tables for every piece type. The attacks of sliding pieces
+ * are looked up with magic bitboards: the blockers on the relevant squares are
+ * multiplied by a magic number so the top bits of the product form a perfect
+ * hash into the table of attack sets of the square.
+ */
+public final class Attacks {
+    private static final int SQUARES = Board.WIDTH * Board.HEIGHT;
+
+    private static final int[][] rookDirections = new int[][] {
+            { -1, 0 }, { 1, 0 }, { 0, -1 }, { 0, 1 }
+    };
+    private static final int[][] bishopDirections = new int[][] {
+            { -1, 1 }, { -1, -1 }, { 1, -1 }, { 1, 1 }
+    };
+    private static final int[][] knightOffsets = new int[][] {
+            { 2, 1 }, { 2, -1 }, { 1, 2 }, { 1, -2 },
+            { -2, 1 }, { -2, -1 }, { -1, 2 }, { -1, -2 }
+    };
+
+    private static final long[] knightAttacks = new long[SQUARES];
+    private static final long[] kingAttacks = new long[SQUARES];
+    // Indexed by the ordinal of the color of the pawn
+    private static final long[][] pawnAttacks = new long[2][SQUARES];
+
+    // Magic numbers of the squares, they were found by trying random sparse
+    // numbers until one mapped every blocker configuration without collisions
+    private static final long[] rookMagicNumbers = new long[] {
+            0x008000908064C000L, 0x0040200040001000L, 0x0180100080A0010AL, 0x8880041000800800L,
+            0x1200100201200804L, 0x0200020004011008L, 0x2180010000800600L, 0x0200005088210204L,
+            0x0000800080204001L, 0x1000804000802001L, 0x8240801000200080L, 0x8611001004200900L,
+            0x008180800C001800L, 0x0100800200800400L, 0x0A02000102000408L, 0x8020802300104280L,
+            0x0080004000402000L, 0xE010104000402000L, 0x0800808010002000L, 0xA280210008100100L,
+            0x0001818014000800L, 0xA002010100080400L, 0x0008040088020130L, 0x0001020004048845L,
+            0x0081826280004004L, 0x2020810900284000L, 0x0200100080802000L, 0x0200080080100080L,
+            0x8083080100100500L, 0x4406000901000400L, 0x0005020080800100L, 0x0090204200008114L,
+            0x0010400094800420L, 0x0900804000802002L, 0x0201001841002000L, 0x4100080080801000L,
+            0x4540040080800800L, 0x0000800400800200L, 0x9281800100808200L, 0x8004048102000854L,
+            0x4420802040008006L, 0x0880500020004002L, 0x0801200241050010L, 0x8400080010008080L,
+            0x0008000500090010L, 0x0082009084020008L, 0x4012000108020004L, 0x9000104D08860004L,
+            0x2004204114800100L, 0x0148802112400300L, 0x0202842000100880L, 0x001B080080900080L,
+            0x001A002008100600L, 0x0004008004020080L, 0x5181000600040300L, 0x0000044401128A00L,
+            0x8044110480002441L, 0x1023012082044112L, 0x00804080200A0012L, 0x000420310A004A42L,
+            0x0023001004020801L, 0x0882001008040102L, 0x000230088118020CL, 0x0000019025040042L
+    };
+    private static final long[] bishopMagicNumbers = new long[] {
+            0x1010220204082A00L, 0x80E0020202002804L, 0x2008480104200020L, 0x000220920280002DL,
+            0x32040421000B0284L, 0x1002080404000400L, 0x0004160892080040L, 0x2203024206204201L,
+            0x0002404264010200L, 0x1120908408428124L, 0xB100424403002280L, 0x240008060440C288L,
+            0x2040040420490400L, 0x0100620210040022L, 0x0400084104202028L, 0x0010050080908820L,
+            0x0C90A04490824802L, 0x000200A008210130L, 0x0C08001000204010L, 0x0008000186014480L,
+            0x0601044820080021L, 0x0002000101013100L, 0x1400A08108080204L, 0x0250401104485410L,
+            0x4820240810142843L, 0x0009142A20182200L, 0x0848140048440020L, 0x2020120000400440L,
+            0x0108840200802003L, 0x0009070082009492L, 0x020C0C0038424245L, 0xCA44005808210410L,
+            0x8011212000500404L, 0x2028840510101008L, 0x0004042A00041400L, 0x0624020080980080L,
+            0x1820410040840040L, 0x2201004202050100L, 0x402A088A24040224L, 0x0242061040002400L,
+            0x90020202400821A0L, 0x00C9009004E01002L, 0x58C2060202023100L, 0x0000012214040800L,
+            0x0210846810100200L, 0x0004208081010200L, 0x01A4108404442100L, 0x8054082C80280106L,
+            0x0004144904104208L, 0x00324C0A11104000L, 0x1000020231040100L, 0x2080001042020004L,
+            0x0544021020288104L, 0x1103501408083020L, 0x4010451004960002L, 0x003010091C44902CL,
+            0x0102402884202000L, 0x0480804C00841086L, 0x04602C8602210400L, 0x0000004000420200L,
+            0x0040000020442C18L, 0x4483804089094100L, 0x80000B0248020400L, 0x0045010808008680L
+    };
+
+    private static final Magic[] rookMagics = new Magic[SQUARES];
+    private static final Magic[] bishopMagics = new Magic[SQUARES];
+
+    // Indexed by two squares, the squares strictly between them and the whole
+    // line through them, both are empty if the squares are not on a common line
+    private static final long[][] betweenSquares = new long[SQUARES][SQUARES];
+    private static final long[][] lineSquares = new long[SQUARES][SQUARES];
+
+    static {
+        for (int sq = 0; sq < SQUARES; sq++) {
+            int row = sq / Board.WIDTH, col = sq % Board.WIDTH;
+            knightAttacks[sq] = stepAttacks(row, col, knightOffsets);
+            kingAttacks[sq] = stepAttacks(row, col, rookDirections) | stepAttacks(row, col, bishopDirections);
+            pawnAttacks[PieceColor.WHITE.ordinal()][sq] = stepAttacks(row, col, new int[][] { { -1, -1 }, { -1, 1 } });
+            pawnAttacks[PieceColor.BLACK.ordinal()][sq] = stepAttacks(row, col, new int[][] { { 1, -1 }, { 1, 1 } });
+            rookMagics[sq] = buildMagic(sq, rookDirections, rookMagicNumbers[sq]);
+            bishopMagics[sq] = buildMagic(sq, bishopDirections, bishopMagicNumbers[sq]);
+        }
+
+        for (int a = 0; a < SQUARES; a++) {
+            for (int b = 0; b < SQUARES; b++) {
+                if (a == b) {
+                    continue;
+                }
+                long ends = Bitboard.bit(a) | Bitboard.bit(b);
+                if ((rook(a, 0L) & Bitboard.bit(b)) != 0) {
+                    betweenSquares[a][b] = rook(a, Bitboard.bit(b)) & rook(b, Bitboard.bit(a));
+                    lineSquares[a][b] = (rook(a, 0L) & rook(b, 0L)) | ends;
+                } else if ((bishop(a, 0L) & Bitboard.bit(b)) != 0) {
+                    betweenSquares[a][b] = bishop(a, Bitboard.bit(b)) & bishop(b, Bitboard.bit(a));
+                    lineSquares[a][b] = (bishop(a, 0L) & bishop(b, 0L)) | ends;
+                }
+            }
+        }
+    }
+
+    private Attacks() {
+    }
+
+    /**
+     * Returns the squares attacked by a knight standing on the specified square.
+     * 
+     * @param square The index of the square
+     * @return Bitboard of the attacked squares
+     */
+    public static long knight(int square) {
+        return knightAttacks[square];
+    }
+
+    /**
+     * Returns the squares attacked by a king standing on the specified square.
+     * 
+     * @param square The index of the square
+     * @return Bitboard of the attacked squares
+     */
+    public static long king(int square) {
+        return kingAttacks[square];
+    }
+
+    /**
+     * Returns the squares attacked by a pawn of the specified color standing on
+     * the specified square.
+     * 
+     * @param color  The color of the pawn
+     * @param square The index of the square
+     * @return Bitboard of the attacked squares
+     */
+    public static long pawn(PieceColor color, int square) {
+        return pawnAttacks[color.ordinal()][square];
+    }
+
+    /**
+     * Returns the squares attacked by a rook standing on the specified square.
+     * 
+     * @param square   The index of the square
+     * @param occupied Bitboard of the occupied squares
+     * @return Bitboard of the attacked squares
+     */
+    public static long rook(int square, long occupied) {
+        return rookMagics[square].attacks(occupied);
+    }
+
+    /**
+     * Returns the squares attacked by a bishop standing on the specified square.
+     * 
+     * @param square   The index of the square
+     * @param occupied Bitboard of the occupied squares
+     * @return Bitboard of the attacked squares
+     */
+    public static long bishop(int square, long occupied) {
+        return bishopMagics[square].attacks(occupied);
+    }
+
+    /**
+     * Returns the squares attacked by a queen standing on the specified square.
+     * 
+     * @param square   The index of the square
+     * @param occupied Bitboard of the occupied squares
+     * @return Bitboard of the attacked squares
+     */
+    public static long queen(int square, long occupied) {
+        return rook(square, occupied) | bishop(square, occupied);
+    }
+
+    /**
+     * Returns the squares strictly between the two squares if they are on the
+     * same row, column or diagonal.
+     * 
+     * @param from The index of the first square
+     * @param to   The index of the second square
+     * @return Bitboard of the squares between, empty if the squares are not on a
+     *         common line
+     */
+    public static long between(int from, int to) {
+        return betweenSquares[from][to];
+    }
+
+    /**
+     * Returns the whole row, column or diagonal that goes through both squares.
+     * 
+     * @param from The index of the first square
+     * @param to   The index of the second square
+     * @return Bitboard of the line, empty if the squares are not on a common line
+     */
+    public static long line(int from, int to) {
+        return lineSquares[from][to];
+    }
+
+    /**
+     * Returns the squares attacked by the specified piece standing on the
+     * specified square.
+     * 
+     * @param type     The type of the piece
+     * @param color    The color of the piece
+     * @param square   The index of the square
+     * @param occupied Bitboard of the occupied squares
+     * @return Bitboard of the attacked squares
+     */
+    public static long of(PieceType type, PieceColor color, int square, long occupied) {
+        switch (type) {
+            case King:
+                return king(square);
+            case Queen:
+                return queen(square, occupied);
+            case Rook:
+                return rook(square, occupied);
+            case Bishop:
+                return bishop(square, occupied);
+            case Knight:
+                return knight(square);
+            case Pawn:
+                return pawn(color, square);
+            default:
+                return 0L;
+        }
+    }
+
+    /**
+     * Calculates the squares reachable with one step in the specified directions.
+     */
+    private static long stepAttacks(int row, int col, int[][] offsets) {
+        long attacks = 0L;
+        for (int[] offset : offsets) {
+            int r = row + offset[0], c = col + offset[1];
+            if (0 <= r && r < Board.HEIGHT && 0 <= c && c < Board.WIDTH) {
+                attacks |= Bitboard.bit(Bitboard.squareIndex(r, c));
+            }
+        }
+        return attacks;
+    }
+
+    /**
+     * Calculates the attacks of a sliding piece by walking the rays one square at
+     * a time, this is only used while building the tables.
+     */
+    private static long slidingAttacks(int square, long occupied, int[][] directions) {
+        long attacks = 0L;
+        for (int[] dir : directions) {
+            int row = square / Board.WIDTH + dir[0], col = square % Board.WIDTH + dir[1];
+            while (0 <= row && row < Board.HEIGHT && 0 <= col && col < Board.WIDTH) {
+                long bit = Bitboard.bit(Bitboard.squareIndex(row, col));
+                attacks |= bit;
+                if ((occupied & bit) != 0) {
+                    break;
+                }
+                row += dir[0];
+                col += dir[1];
+            }
+        }
+        return attacks;
+    }
+
+    /**
+     * Calculates the squares where a blocker changes the attacks of a sliding
+     * piece, the last square of every ray is left out because it is attacked
+     * whether it is occupied or not.
+     */
+    private static long relevantMask(int square, int[][] directions) {
+        long mask = 0L;
+        for (int[] dir : directions) {
+            int row = square / Board.WIDTH + dir[0], col = square % Board.WIDTH + dir[1];
+            while (0 <= row + dir[0] && row + dir[0] < Board.HEIGHT
+                    && 0 <= col + dir[1] && col + dir[1] < Board.WIDTH) {
+                mask |= Bitboard.bit(Bitboard.squareIndex(row, col));
+                row += dir[0];
+                col += dir[1];
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Builds the attack table of the square by hashing every blocker
+     * configuration of the relevant squares with the magic number.
+     * 
+     * @throws IllegalStateException If the magic number maps two blocker
+     *                               configurations with different attacks to the
+     *                               same entry
+     */
+    private static Magic buildMagic(int square, int[][] directions, long magic) {
+        long mask = relevantMask(square, directions);
+        int bits = Long.bitCount(mask);
+        long[] table = new long[1 << bits];
+
+        // Enumerate every subset of the mask with the carry-rippler trick
+        long blockers = 0L;
+        do {
+            int index = (int) ((blockers * magic) >>> (64 - bits));
+            long attacks = slidingAttacks(square, blockers, directions);
+            // A slider always attacks a square, so an empty slot is zero. Blocker
+            // sets may share a slot only if they give the same attacks
+            if (table[index] != 0L && table[index] != attacks) {
+                throw new IllegalStateException("Magic number collision on square " + square);
+            }
+            table[index] = attacks;
+            blockers = (blockers - mask) & mask;
+        } while (blockers != 0);
+
+        return new Magic(mask, magic, 64 - bits, table);
+    }
+
+    private static final class Magic {
+        private final long mask;
+        private final long magic;
+        private final int shift;
+        private final long[] table;
+
+        private Magic(long mask, long magic, int shift, long[] table) {
+            this.mask = mask;
+            this.magic = magic;
+            this.shift = shift;
+            this.table = table;
+        }
+
+        private long attacks(long occupied) {
+            return table[(int) (((occupied & mask) * magic) >>> shift)];
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package chess.core;
+
+/**
+ * Helper methods for working with bitboards. A bitboard is a long where bit i
+ * stands for the square on row i / Board.WIDTH and column i % Board.WIDTH.
+ */
+public final class Bitboard {
+    private Bitboard() {
+    }
+
+    /**
+     * Returns the index of the square with the specified row and column.
+     * 
+     * @param row The row of the square
+     * @param col The column of the square
+     * @return The index of the square
+     */
+    public static int squareIndex(int row, int col) {
+        return row * Board.WIDTH + col;
+    }
+
+    /**
+     * Returns the index of the specified square.
+     * 
+     * @param square The square
+     * @return The index of the square
+     */
+    public static int squareIndex(Square square) {
+        return squareIndex(square.rank, square.file);
+    }
+
+    /**
+     * Returns a bitboard with only the bit of the specified square set.
+     * 
+     * @param index The index of the square
+     * @return The bitboard of the square
+     */
+    public static long bit(int index) {
+        return 1L << index;
+    }
+}
@@ -2,8 +2,10 @@ package chess.core;
 
 import java.io.PrintWriter;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
+import chess.core.FENParser.InvalidFENException;
 import chess.core.PGNParser.InvalidPGNException;
 
 public class Board {
@@ -15,15 +17,287 @@ public class Board {
             blackKingsideMask = (byte) 0b0100,
             blackQueensideMask = (byte) 0b1000;
 
+    // The castling rights that remain after a piece moves from or to the square
+    private static final byte[] castlingRightsMasks = new byte[WIDTH * HEIGHT];
+    static {
+        Arrays.fill(castlingRightsMasks, (byte) 0b1111);
+        castlingRightsMasks[0] = (byte) ~blackQueensideMask;
+        castlingRightsMasks[4] = (byte) ~(blackKingsideMask | blackQueensideMask);
+        castlingRightsMasks[WIDTH - 1] = (byte) ~blackKingsideMask;
+        castlingRightsMasks[(HEIGHT - 1) * WIDTH] = (byte) ~whiteQueensideMask;
+        castlingRightsMasks[(HEIGHT - 1) * WIDTH + 4] = (byte) ~(whiteKingsideMask | whiteQueensideMask);
+        castlingRightsMasks[HEIGHT * WIDTH - 1] = (byte) ~whiteKingsideMask;
+    }
+
+    private static final int PIECE_TYPES = PieceType.values().length;
+    private static final PieceType[] promotionTypes = new PieceType[] {
+            PieceType.Queen, PieceType.Rook, PieceType.Bishop, PieceType.Knight
+    };
+    private static final long promotionRows = 0xFFL | (0xFFL << (HEIGHT - 1) * WIDTH);
+    // The rows that pawns reach with a single push from their starting row
+    private static final long whiteDoublePushRow = 0xFFL << (HEIGHT - 3) * WIDTH;
+    private static final long blackDoublePushRow = 0xFFL << 2 * WIDTH;
+
+    // The kinds of moves the generator can be asked for
+    private static final int CAPTURES = 1, QUIET_MOVES = 2, ALL_MOVES = CAPTURES | QUIET_MOVES;
+
+    // The values of the pieces in an exchange by the ordinal of the type, the king
+    // only needs to be worth more than anything it could win
+    private static final int[] exchangeValues = new int[PIECE_TYPES];
+    static {
+        for (PieceType type : PieceType.values()) {
+            exchangeValues[type.ordinal()] = type == PieceType.King ? 100 : type.getValue();
+        }
+    }
+    // The order in which the attackers join an exchange, the least valuable first
+    private static final PieceType[] exchangeOrder = new PieceType[] {
+            PieceType.Pawn, PieceType.Knight, PieceType.Bishop, PieceType.Rook, PieceType.Queen, PieceType.King
+    };
+
+    private static final int INITIAL_HISTORY_CAPACITY = 256;
+    private static final int COPY_HISTORY_RESERVE = 32;
+    private static final int FIFTY_MOVE_LIMIT = 100;
+
+    /**
+     * The number of bytes written by {@link #encode(byte[], int)}.
+     */
+    public static final int ENCODED_SIZE = 32;
+    private static final int PIECES_BYTES = 16;
+
     private byte castlingRights;
-    protected Piece[][] squares;
     protected PieceColor activeColor;
-    protected List<Move> moveHistory;
+    // The square that a pawn skipped with its double push in the last move, it is
+    // only set if an enemy pawn can capture en passant (-1 otherwise)
+    private int enPassantSquare = -1;
+    // The number of halfmoves since the last capture or pawn move
+    private int halfmoveClock;
+    // The number of halfmoves that were played before the loaded position
+    private int startPly;
+
+    // The position is stored as bitboards, bit i of a bitboard stands for the
+    // square on row i / WIDTH and column i % WIDTH (so a8 is bit 0 and h1 is bit 63)
+    private final long[] pieceBitboards = new long[2 * PIECE_TYPES];
+    private final long[] colorBitboards = new long[PieceColor.values().length];
+    private long occupied;
+
+    // Zobrist key of the position, kept up to date by every change of the board
+    private long positionKey;
+
+    // Sums of the middlegame and endgame scores of the pieces from the view of
+    // white and the game phase, kept up to date like the key
+    private int middlegameScore;
+    private int endgameScore;
+    private int phase;
+
+    // Mailbox for answering which piece is standing on a square without
+    // searching through the bitboards, it holds the shared piece instances
+    private final Piece[] mailbox = new Piece[WIDTH * HEIGHT];
+
+    // History of the played moves and the state that can't be recovered from the
+    // position when undoing them
+    private int ply;
+    private int[] moveStack;
+    // The pieces are stored by the index of their bitboard, -1 if there was no
+    // captured piece
+    private byte[] movedPieceStack;
+    private byte[] capturedPieceStack;
+    private byte[] castlingRightsStack;
+    private byte[] enPassantStack;
+    private int[] halfmoveClockStack;
+    // The key of the position before each move, used for undoing and for finding
+    // repetitions
+    private long[] positionKeyStack;
+
+    // The legal moves of the position with the key legalMovesKey, they are only
+    // generated again when the position changes
+    private final MoveList legalMoves = new MoveList();
+    private long legalMovesKey;
+    private boolean hasLegalMoves;
+
+    // Scratch space of staticExchange, an exchange has at most one capture for
+    // every piece on the board
+    private final int[] exchangeGains = new int[WIDTH * HEIGHT];
 
     public Board() {
         mustLoadFEN(STARTING_POS);
     }
 
+    /**
+     * Creates a board with the position described by the FEN string, the string
+     * must be well formed.
+     * 
+     * @param fen The position in FEN notation
+     */
+    public Board(String fen) {
+        mustLoadFEN(fen);
+    }
+
+    /**
+     * Creates a board with the specified position, the board has no move history.
+     * 
+     * @param position The position to set up
+     */
+    public Board(Position position) {
+        clear();
+        for (PieceColor color : PieceColor.values()) {
+            for (PieceType type : PieceType.values()) {
+                long pieces = position.getBitboard(type, color);
+                while (pieces != 0) {
+                    putPiece(Piece.of(type, color), Long.numberOfTrailingZeros(pieces));
+                    pieces &= pieces - 1;
+                }
+            }
+        }
+        activeColor = position.getActiveColor();
+        startPly = activeColor == PieceColor.BLACK ? 1 : 0;
+        castlingRights = position.getCastlingRights();
+        enPassantSquare = position.getEnPassantIndex();
+        positionKey = position.getPositionKey();
+    }
+
+    /**
+     * Creates an independent copy of the board, including the move history. The
+     * copy can be used on another thread while this board keeps changing.
+     */
+    private Board(Board other) {
+        activeColor = other.activeColor;
+        castlingRights = other.castlingRights;
+        enPassantSquare = other.enPassantSquare;
+        halfmoveClock = other.halfmoveClock;
+        startPly = other.startPly;
+        System.arraycopy(other.pieceBitboards, 0, pieceBitboards, 0, pieceBitboards.length);
+        System.arraycopy(other.colorBitboards, 0, colorBitboards, 0, colorBitboards.length);
+        occupied = other.occupied;
+        positionKey = other.positionKey;
+        middlegameScore = other.middlegameScore;
+        endgameScore = other.endgameScore;
+        phase = other.phase;
+
+        System.arraycopy(other.mailbox, 0, mailbox, 0, mailbox.length);
+
+        // Only the played part of the history is copied, the stacks grow again when
+        // needed
+        ply = other.ply;
+        int capacity = ply + COPY_HISTORY_RESERVE;
+        moveStack = Arrays.copyOf(other.moveStack, capacity);
+        castlingRightsStack = Arrays.copyOf(other.castlingRightsStack, capacity);
+        enPassantStack = Arrays.copyOf(other.enPassantStack, capacity);
+        halfmoveClockStack = Arrays.copyOf(other.halfmoveClockStack, capacity);
+        positionKeyStack = Arrays.copyOf(other.positionKeyStack, capacity);
+        movedPieceStack = Arrays.copyOf(other.movedPieceStack, capacity);
+        capturedPieceStack = Arrays.copyOf(other.capturedPieceStack, capacity);
+    }
+
+    /**
+     * Returns an independent copy of the board with the same position and move
+     * history. Changes to the copy don't affect this board and the other way
+     * around.
+     * 
+     * @return The copy of the board
+     */
+    public Board copy() {
+        return new Board(this);
+    }
+
+    /**
+     * Returns an immutable snapshot of the current position, it can be shared
+     * between threads freely.
+     * 
+     * @return The snapshot of the position
+     */
+    public Position getPosition() {
+        return new Position(pieceBitboards, activeColor, castlingRights, enPassantSquare, positionKey);
+    }
+
+    /**
+     * Writes the position in a fixed size binary format into the array, nothing is
+     * allocated. The layout of the {@value #ENCODED_SIZE} bytes:
+     * <ul>
+     * <li>0-7: the occupancy bitboard</li>
+     * <li>8-23: the pieces as 4 bit bitboard indexes in the order of the squares
+     * of the occupancy, the high half of a byte comes first</li>
+     * <li>24: bit 0 is set if black is to move, bits 1-4 are the castling
+     * rights</li>
+     * <li>25: the en passant square or -1</li>
+     * <li>26-27: the halfmove clock, 28-29: the fullmove number</li>
+     * <li>30-31: unused, always zero</li>
+     * </ul>
+     * The move history is not part of the encoding.
+     * 
+     * @param dest   The array to write to
+     * @param offset The index of the first byte to write
+     * @throws IllegalStateException If there are more than 32 pieces on the board
+     */
+    public void encode(byte[] dest, int offset) {
+        if (Long.bitCount(occupied) > 2 * PIECES_BYTES) {
+            throw new IllegalStateException("Only positions with at most 32 pieces can be encoded");
+        }
+
+        writeShort(dest, offset, (int) (occupied >>> 48));
+        writeShort(dest, offset + 2, (int) (occupied >>> 32));
+        writeShort(dest, offset + 4, (int) (occupied >>> 16));
+        writeShort(dest, offset + 6, (int) occupied);
+
+        Arrays.fill(dest, offset + 8, offset + ENCODED_SIZE, (byte) 0);
+        long pieces = occupied;
+        for (int i = 0; pieces != 0; i++) {
+            int square = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            int shift = (i & 1) == 0 ? 4 : 0;
+            dest[offset + 8 + i / 2] |= (byte) (mailbox[square].index << shift);
+        }
+
+        int flags = (activeColor == PieceColor.BLACK ? 1 : 0) | castlingRights << 1;
+        dest[offset + 24] = (byte) flags;
+        dest[offset + 25] = (byte) enPassantSquare;
+        writeShort(dest, offset + 26, Math.min(halfmoveClock, 0xFFFF));
+        writeShort(dest, offset + 28, Math.min(getFullmoveNumber(), 0xFFFF));
+    }
+
+    /**
+     * Loads a position written by {@link #encode(byte[], int)}, the move history
+     * is cleared. Nothing is allocated unless the board is new.
+     * 
+     * @param src    The array to read from
+     * @param offset The index of the first byte to read
+     */
+    public void decode(byte[] src, int offset) {
+        clear();
+
+        long occupancy = (long) readShort(src, offset) << 48 | (long) readShort(src, offset + 2) << 32
+                | (long) readShort(src, offset + 4) << 16 | readShort(src, offset + 6);
+        for (int i = 0; occupancy != 0; i++) {
+            int square = Long.numberOfTrailingZeros(occupancy);
+            occupancy &= occupancy - 1;
+            int shift = (i & 1) == 0 ? 4 : 0;
+            putPiece(Piece.of(src[offset + 8 + i / 2] >> shift & 0xF), square);
+        }
+
+        int flags = src[offset + 24];
+        activeColor = (flags & 1) != 0 ? PieceColor.BLACK : PieceColor.WHITE;
+        castlingRights = (byte) (flags >> 1 & 0xF);
+        enPassantSquare = src[offset + 25];
+        halfmoveClock = readShort(src, offset + 26);
+        startPly = 2 * (readShort(src, offset + 28) - 1) + (activeColor == PieceColor.BLACK ? 1 : 0);
+
+        positionKey ^= Zobrist.castlingKeys[castlingRights];
+        if (activeColor == PieceColor.BLACK) {
+            positionKey ^= Zobrist.blackToMoveKey;
+        }
+        if (enPassantSquare != -1) {
+            positionKey ^= Zobrist.enPassantKeys[enPassantSquare % Board.WIDTH];
+        }
+    }
+
+    private static void writeShort(byte[] dest, int offset, int value) {
+        dest[offset] = (byte) (value >>> 8);
+        dest[offset + 1] = (byte) value;
+    }
+
+    private static int readShort(byte[] src, int offset) {
+        return (src[offset] & 0xFF) << 8 | src[offset + 1] & 0xFF;
+    }
+
     /**
      * Resets the board as if a whole new game has started.
      */
@@ -58,7 +332,180 @@ public class Board {
         if (col < 0 || WIDTH <= col)
             throw new IllegalArgumentException("Column out of bounds");
 
-        return squares[row][col];
+        return mailbox[Bitboard.squareIndex(row, col)];
+    }
+
+    /**
+     * Returns the bitboard of the pieces with the specified type and color. Bit i
+     * of the bitboard is set if there is such a piece on the square with the row i
+     * / WIDTH and the column i % WIDTH.
+     * 
+     * @param type  The type of the pieces
+     * @param color The color of the pieces
+     * @return The bitboard of the pieces
+     */
+    public long getBitboard(PieceType type, PieceColor color) {
+        return pieceBitboards[bitboardIndex(type, color)];
+    }
+
+    /**
+     * Returns the bitboard of all the squares occupied by pieces of the specified
+     * color.
+     * 
+     * @param color The color of the pieces
+     * @return The bitboard of the occupied squares
+     */
+    public long getOccupancy(PieceColor color) {
+        return colorBitboards[color.ordinal()];
+    }
+
+    /**
+     * Returns the bitboard of all the occupied squares.
+     * 
+     * @return The bitboard of the occupied squares
+     */
+    public long getOccupancy() {
+        return occupied;
+    }
+
+    /**
+     * Returns the squares attacked by the piece standing on the specified square.
+     * 
+     * @param square The square of the piece
+     * @return Bitboard of the attacked squares, empty if there is no piece on the
+     *         square
+     */
+    public long attacksFrom(Square square) {
+        Piece piece = getPiece(square);
+        if (piece == null) {
+            return 0L;
+        }
+        return Attacks.of(piece.getType(), piece.getColor(), Bitboard.squareIndex(square), occupied);
+    }
+
+    /**
+     * Checks if any piece of the specified color attacks the square. The attackers
+     * are found by looking from the square along the attack rays of every piece
+     * type, so no moves are generated.
+     * 
+     * @param square The square to check
+     * @param color  The color of the attacking pieces
+     * @return True if the square is attacked else false
+     */
+    public boolean isSquareAttacked(Square square, PieceColor color) {
+        return isSquareAttacked(Bitboard.squareIndex(square), color);
+    }
+
+    /**
+     * Returns the material that the active color wins with the move, if both
+     * sides keep capturing on the destination square with their least valuable
+     * attacker for as long as it pays off. Attackers behind other attackers on
+     * the same line join the exchange when the piece in front of them has
+     * captured. Pins are not taken into account and no move is played on the
+     * board.
+     * 
+     * @param move The move of the active color, it must be legal
+     * @return The material balance of the exchange in the units of
+     *         {@link PieceType#getValue()}, negative if the move loses material
+     */
+    public int staticExchange(Move move) {
+        return staticExchange(toPacked(move));
+    }
+
+    /**
+     * Returns the material that the active color wins with the packed move, see
+     * {@link #staticExchange(Move)}.
+     * 
+     * @param move The packed move of the active color, it must be legal
+     * @return The material balance of the exchange in the units of
+     *         {@link PieceType#getValue()}
+     */
+    public int staticExchange(int move) {
+        if (PackedMove.isCastle(move)) {
+            return 0;
+        }
+        int from = PackedMove.getFrom(move), to = PackedMove.getTo(move);
+        long occupancy = occupied ^ Bitboard.bit(from);
+
+        // gains[d] is the balance for the side that made capture d if the piece it
+        // put on the square gets captured
+        int[] gains = exchangeGains;
+        gains[0] = 0;
+        int pieceOnSquare = mailbox[from].getType().ordinal();
+        if (PackedMove.isEnPassant(move)) {
+            occupancy ^= Bitboard.bit(enPassantCaptureSquare(to));
+            gains[0] = exchangeValues[PieceType.Pawn.ordinal()];
+        } else if (mailbox[to] != null) {
+            gains[0] = exchangeValues[mailbox[to].getType().ordinal()];
+        }
+        PieceType promotion = PackedMove.getPromotion(move);
+        if (promotion != null) {
+            gains[0] += exchangeValues[promotion.ordinal()] - exchangeValues[PieceType.Pawn.ordinal()];
+            pieceOnSquare = promotion.ordinal();
+        }
+
+        long diagonals = pieceBitboards[bitboardIndex(PieceType.Bishop, PieceColor.WHITE)]
+                | pieceBitboards[bitboardIndex(PieceType.Bishop, PieceColor.BLACK)]
+                | pieceBitboards[bitboardIndex(PieceType.Queen, PieceColor.WHITE)]
+                | pieceBitboards[bitboardIndex(PieceType.Queen, PieceColor.BLACK)];
+        long orthogonals = pieceBitboards[bitboardIndex(PieceType.Rook, PieceColor.WHITE)]
+                | pieceBitboards[bitboardIndex(PieceType.Rook, PieceColor.BLACK)]
+                | pieceBitboards[bitboardIndex(PieceType.Queen, PieceColor.WHITE)]
+                | pieceBitboards[bitboardIndex(PieceType.Queen, PieceColor.BLACK)];
+        long attackers = (attackersTo(to, PieceColor.WHITE, occupancy)
+                | attackersTo(to, PieceColor.BLACK, occupancy)) & occupancy;
+
+        PieceColor side = activeColor;
+        int depth = 0;
+        while (true) {
+            side = side.getInverse();
+            long sideAttackers = attackers & colorBitboards[side.ordinal()];
+            if (sideAttackers == 0) {
+                break;
+            }
+
+            // Find the least valuable attacker of the side
+            PieceType attacker = null;
+            long attackerBit = 0;
+            for (PieceType type : exchangeOrder) {
+                long pieces = sideAttackers & pieceBitboards[bitboardIndex(type, side)];
+                if (pieces != 0) {
+                    attacker = type;
+                    attackerBit = pieces & -pieces;
+                    break;
+                }
+            }
+            // The king can't capture a defended piece
+            if (attacker == PieceType.King && (attackers & ~sideAttackers) != 0) {
+                break;
+            }
+
+            depth++;
+            gains[depth] = exchangeValues[pieceOnSquare] - gains[depth - 1];
+            pieceOnSquare = attacker.ordinal();
+
+            // The pieces behind the attacker on the same line join the exchange
+            occupancy ^= attackerBit;
+            attackers |= (Attacks.bishop(to, occupancy) & diagonals) | (Attacks.rook(to, occupancy) & orthogonals);
+            attackers &= occupancy;
+        }
+
+        // Every side can stop capturing if it would lose more by going on
+        while (depth > 0) {
+            gains[depth - 1] = -Math.max(-gains[depth - 1], gains[depth]);
+            depth--;
+        }
+        return gains[0];
+    }
+
+    /**
+     * Checks if the king of the active color is in check.
+     * 
+     * @return True if the active player is in check else false
+     */
+    public boolean isInCheck() {
+        long king = pieceBitboards[bitboardIndex(PieceType.King, activeColor)];
+        return king != 0 && isSquareAttacked(Long.numberOfTrailingZeros(king), activeColor.getInverse());
     }
 
     /**
@@ -67,34 +514,259 @@ public class Board {
      * @return Number of moves that have been played
      */
     public int getMoveCount() {
-        return moveHistory.size();
+        return ply;
     }
 
     /**
-     * Returns all the legal moves at the current state of the board.
+     * Returns all the legal moves at the current state of the board. A promotion
+     * is returned as a single move, a move with another piece to promote to can be
+     * created with {@link Move#withPromotionTo(PieceType)}.
      * 
      * @return List of all of the legal moves
      */
     public List<Move> generateMoves() {
-        List<Move> moves = new ArrayList<>();
-        for (int i = 0; i < Board.WIDTH * Board.HEIGHT; i++) {
-            Piece piece = squares[i / Board.WIDTH][i % Board.WIDTH];
-            if (piece != null && piece.getColor() == activeColor) {
-                // Filter out only pseudo legal moves
-                for (Move move : piece.generateMoves()) {
-                    if (isLegal(move)) {
-                        move.setMovedPiece(piece);
-                        move.setCapturedPiece(getPiece(move.to));
-                        moves.add(move);
-                    }
-                }
+        MoveList legalMoves = legalMoves();
+        List<Move> moves = new ArrayList<>(legalMoves.size());
+        for (int i = 0; i < legalMoves.size(); i++) {
+            int packed = legalMoves.get(i);
+            PieceType promotion = PackedMove.getPromotion(packed);
+            if (promotion == null || promotion == PieceType.Queen) {
+                moves.add(toMove(packed));
             }
         }
         return moves;
     }
 
     /**
-     * Checks if this is a legal move, than plays the move on the board.
+     * Counts the legal moves of the active color without creating move objects.
+     * Promotions are counted once for every piece type that the pawn can promote
+     * to.
+     * 
+     * @return The number of legal moves
+     */
+    public int countLegalMoves() {
+        return legalMoves().size();
+    }
+
+    /**
+     * Checks if the active color has at least one legal move. The king moves and
+     * the moves of the other pieces are generated in separate steps and the
+     * search stops at the first step that finds a move.
+     * 
+     * @return True if there is a legal move else false
+     */
+    public boolean hasAnyLegalMove() {
+        if (hasLegalMoves && legalMovesKey == positionKey) {
+            return legalMoves.size() != 0;
+        }
+
+        long king = pieceBitboards[bitboardIndex(PieceType.King, activeColor)];
+        if (king == 0) {
+            return countLegalMoves() != 0;
+        }
+        int kingIndex = Long.numberOfTrailingZeros(king);
+        long checkers = attackersTo(kingIndex, activeColor.getInverse(), occupied);
+        if (checkers != 0) {
+            // There are only a few evasions, so the full list is generated and cached
+            return countLegalMoves() != 0;
+        }
+
+        // The cache list is used as scratch space, it holds only some of the moves
+        hasLegalMoves = false;
+        MoveList moves = legalMoves;
+        moves.clear();
+        generateKingMoves(moves, kingIndex, ~0L);
+        if (moves.size() != 0) {
+            return true;
+        }
+        // Castling needs a free and safe square next to the king, so if the king
+        // can't move it can't castle either
+        generatePieceMoves(moves, ~0L, ~0L, pinnedPieces(kingIndex), kingIndex);
+        if (moves.size() != 0) {
+            return true;
+        }
+        generateEnPassantMoves(moves, kingIndex);
+        return moves.size() != 0;
+    }
+
+    /**
+     * Returns the state of the game: whether the active color has been
+     * checkmated, stalemated, the game is drawn by the fifty move rule or by
+     * threefold repetition, or the game goes on.
+     * 
+     * @return The status of the game
+     */
+    public GameStatus getGameStatus() {
+        if (!hasAnyLegalMove()) {
+            return isInCheck() ? GameStatus.CHECKMATE : GameStatus.STALEMATE;
+        }
+        if (halfmoveClock >= FIFTY_MOVE_LIMIT) {
+            return GameStatus.FIFTY_MOVE_DRAW;
+        }
+        if (isThreefold()) {
+            return GameStatus.THREEFOLD_REPETITION;
+        }
+        return GameStatus.ONGOING;
+    }
+
+    /**
+     * Returns the number of halfmoves since the last capture or pawn move.
+     * 
+     * @return The halfmove clock
+     */
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    /**
+     * Returns the number of the full move, it starts at 1 and is incremented after
+     * every move of black.
+     * 
+     * @return The fullmove number
+     */
+    public int getFullmoveNumber() {
+        return (startPly + ply) / 2 + 1;
+    }
+
+    /**
+     * Checks if the current position has already occurred in the game.
+     * 
+     * @return True if the position is a repetition else false
+     */
+    public boolean isRepetition() {
+        return countRepetitions(1) >= 1;
+    }
+
+    /**
+     * Checks if the current position has occurred at least three times in the
+     * game, counting the current one.
+     * 
+     * @return True if the position occurred three times else false
+     */
+    public boolean isThreefold() {
+        return countRepetitions(2) >= 2;
+    }
+
+    /**
+     * Checks if fifty moves have been played by both players without a capture or
+     * pawn move. A checkmate delivered with the last of those moves still wins.
+     * 
+     * @return True if the game is drawn by the fifty move rule else false
+     */
+    public boolean isFiftyMoveDraw() {
+        return halfmoveClock >= FIFTY_MOVE_LIMIT && (!isInCheck() || hasAnyLegalMove());
+    }
+
+    /**
+     * Counts the earlier occurrences of the current position. Only the positions
+     * since the last capture or pawn move are scanned, and only those with the
+     * same color to move.
+     * 
+     * @param limit The count to stop at
+     * @return The number of earlier occurrences, at most the limit
+     */
+    private int countRepetitions(int limit) {
+        int count = 0;
+        int first = Math.max(0, ply - halfmoveClock);
+        for (int i = ply - 2; i >= first; i -= 2) {
+            if (positionKeyStack[i] == positionKey && ++count == limit) {
+                break;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Writes all the legal moves at the current state of the board into the
+     * specified list, the previous content of the list is cleared. Promotions are
+     * added once for every piece type that the pawn can promote to. Nothing is
+     * allocated on the heap so this is the method to use in hot loops.
+     * 
+     * @param moves The list to write the packed moves into
+     */
+    public void generateMoves(MoveList moves) {
+        generateMoves(moves, ALL_MOVES);
+    }
+
+    /**
+     * Writes the legal captures, en passant captures and promotions into the
+     * specified list, the previous content of the list is cleared. Together with
+     * {@link #generateQuietMoves(MoveList)} these are exactly the moves of
+     * {@link #generateMoves(MoveList)}, so a search can look at the captures
+     * before it spends time on generating the rest.
+     * 
+     * @param moves The list to write the packed moves into
+     */
+    public void generateCaptures(MoveList moves) {
+        generateMoves(moves, CAPTURES);
+    }
+
+    /**
+     * Writes the legal moves that neither capture nor promote into the specified
+     * list, including castling, the previous content of the list is cleared.
+     * 
+     * @param moves The list to write the packed moves into
+     */
+    public void generateQuietMoves(MoveList moves) {
+        generateMoves(moves, QUIET_MOVES);
+    }
+
+    /**
+     * Writes the legal moves of the specified kinds into the list.
+     * 
+     * @param moves The list to write the packed moves into
+     * @param kinds The kinds of moves to generate, {@link #CAPTURES},
+     *              {@link #QUIET_MOVES} or both
+     */
+    private void generateMoves(MoveList moves, int kinds) {
+        moves.clear();
+        // The squares the pieces may move to and the squares the pawns may push to,
+        // a push is only a capture stage move if it promotes
+        long targets, pushTargets;
+        if (kinds == CAPTURES) {
+            targets = colorBitboards[activeColor.getInverse().ordinal()];
+            pushTargets = promotionRows;
+        } else if (kinds == QUIET_MOVES) {
+            targets = ~occupied;
+            pushTargets = ~promotionRows;
+        } else {
+            targets = ~0L;
+            pushTargets = ~0L;
+        }
+        boolean captures = (kinds & CAPTURES) != 0, quiets = (kinds & QUIET_MOVES) != 0;
+
+        long king = pieceBitboards[bitboardIndex(PieceType.King, activeColor)];
+        if (king == 0) {
+            // Without a king nothing can be pinned or checked
+            generatePieceMoves(moves, targets, pushTargets, 0L, -1);
+            if (captures) {
+                generateEnPassantMoves(moves, -1);
+            }
+            return;
+        }
+
+        // Legality is decided up front from the checkers and the pinned pieces
+        int kingIndex = Long.numberOfTrailingZeros(king);
+        long checkers = attackersTo(kingIndex, activeColor.getInverse(), occupied);
+        long pinned = pinnedPieces(kingIndex);
+        if (checkers != 0) {
+            generateEvasions(moves, kingIndex, checkers, pinned, targets, pushTargets);
+        } else {
+            generateKingMoves(moves, kingIndex, targets);
+            generatePieceMoves(moves, targets, pushTargets, pinned, kingIndex);
+            if (quiets) {
+                generateCastlingMoves(moves, kingIndex);
+            }
+        }
+        if (captures) {
+            generateEnPassantMoves(moves, kingIndex);
+        }
+    }
+
+    /**
+     * Checks if this is a legal move, than plays the move on the board. The legal
+     * moves are cached for the position, so checking moves that come from
+     * {@link #generateMoves()} doesn't generate them again.
      * 
      * @param move The move to play
      * @throws IllegalMove If the move is not legal it gets thrown
@@ -108,114 +780,146 @@ public class Board {
         Piece movedPiece = getPiece(move.from);
         if (movedPiece == null)
             throw new IllegalMove("There is no piece to move on the source square of the move");
-        if (!movedPiece.canMakeMove(move))
-            throw new IllegalMove("Illegal move for piece");
-
-        move.setMovedPiece(movedPiece);
-        if (move.isPromotion() && move.getPromotionTo() == null)
+        if (movedPiece.getType() == PieceType.Pawn && (Bitboard.bit(move.to.getIndex()) & promotionRows) != 0
+                && move.getPromotionTo() == null)
             throw new IllegalMove("The move is a promoting one but no promotion piece type was set");
-        if (!isLegal(move))
+
+        int packed = toPacked(move);
+        if (!isLegal(packed)) {
+            // Only a failing move pays for finding out why it failed
+            if (!movedPiece.canMakeMove(this, move))
+                throw new IllegalMove("Illegal move for piece");
             throw new IllegalMove("The move provided is just pseudo legal");
-        mustMakeMove(move);
+        }
+        mustMakeMove(packed);
     }
 
     /**
-     * Plays the specified move on the board. The move must be playable or it will
-     * cause undefined behaviour.
+     * Plays the specified move on the board without validating it. The move must
+     * come from {@link #generateMoves()} for the current position or it will cause
+     * undefined behaviour.
      * 
      * @param move The move to play
      */
-    private void mustMakeMove(Move move) {
-        Square src = move.from, dest = move.to;
-        Piece piece = getPiece(src);
-        Piece capturedPiece = getPiece(dest);
+    public void makeLegalMove(Move move) {
+        mustMakeMove(toPacked(move));
+    }
+
+    /**
+     * Plays the specified packed move on the board without validating it. The
+     * move must come from {@link #generateMoves(MoveList)} for the current
+     * position or it will cause undefined behaviour.
+     * 
+     * @param move The packed move to play
+     */
+    public void makeLegalMove(int move) {
+        mustMakeMove(move);
+    }
+
+    /**
+     * Plays the specified packed move on the board. The move must be playable or
+     * it will cause undefined behaviour.
+     * 
+     * @param move The packed move to play
+     */
+    private void mustMakeMove(int move) {
+        int from = PackedMove.getFrom(move), to = PackedMove.getTo(move);
+        if (ply == moveStack.length) {
+            growHistory();
+        }
+
+        // Save the irreversible state for undoing
+        positionKeyStack[ply] = positionKey;
+        Piece piece = removePiece(from);
+        int capturedSquare = PackedMove.isEnPassant(move) ? enPassantCaptureSquare(to) : to;
+        Piece capturedPiece = mailbox[capturedSquare];
+        if (capturedPiece != null) {
+            removePiece(capturedSquare);
+        }
+        moveStack[ply] = move;
+        movedPieceStack[ply] = (byte) piece.index;
+        capturedPieceStack[ply] = (byte) (capturedPiece != null ? capturedPiece.index : -1);
+        castlingRightsStack[ply] = castlingRights;
+        enPassantStack[ply] = (byte) enPassantSquare;
+        halfmoveClockStack[ply] = halfmoveClock;
+        ply++;
+
+        // Captures and pawn moves can't be undone, so no earlier position can repeat
+        if (capturedPiece != null || piece.getType() == PieceType.Pawn) {
+            halfmoveClock = 0;
+        } else {
+            halfmoveClock++;
+        }
 
-        // Set move metadate for undoing
-        move.setMovedPiece(piece);
-        move.setCapturedPiece(capturedPiece);
-        move.setPrevCastlingRights(castlingRights);
+        if (enPassantSquare != -1) {
+            positionKey ^= Zobrist.enPassantKeys[enPassantSquare % Board.WIDTH];
+            enPassantSquare = -1;
+        }
 
-        squares[src.getRow()][src.getCol()] = null;
-        if (move.isPromotion()) {
-            squares[dest.getRow()][dest.getCol()] = createPiece(move.getPromotionTo(), activeColor);
+        PieceType promotion = PackedMove.getPromotion(move);
+        if (promotion != null) {
+            putPiece(Piece.of(promotion, activeColor), to);
         } else {
-            squares[dest.getRow()][dest.getCol()] = piece;
+            putPiece(piece, to);
         }
 
         // handle castling
-        if (piece.getType() == PieceType.King) {
-            if (move.isKingsideCastle()) {
-                squares[dest.getRow()][dest.getCol() - 1] = squares[src.getRow()][Board.WIDTH - 1];
-                squares[src.getRow()][Board.WIDTH - 1] = null;
-            }
-            if (move.isQueensideCastle()) {
-                squares[dest.getRow()][dest.getCol() + 1] = squares[src.getRow()][0];
-                squares[src.getRow()][0] = null;
+        if (PackedMove.isCastle(move)) {
+            int rankStart = to - to % Board.WIDTH;
+            if (from < to) {
+                putPiece(removePiece(rankStart + Board.WIDTH - 1), to - 1);
+            } else {
+                putPiece(removePiece(rankStart), to + 1);
             }
-
-            // clear castling rights
-            if (piece.getColor() == PieceColor.WHITE)
-                castlingRights &= (~whiteKingsideMask & ~whiteQueensideMask);
-            else
-                castlingRights &= (~blackKingsideMask & ~blackQueensideMask);
         }
 
         // adjust castling rights
-        if (piece.getType() == PieceType.Rook && src.isCorner()) {
-            if (src.isTopLeft())
-                castlingRights &= ~blackQueensideMask;
-            else if (src.isTopRight())
-                castlingRights &= ~blackKingsideMask;
-            else if (src.isBottomLeft())
-                castlingRights &= ~whiteQueensideMask;
-            else if (src.isBottomRight())
-                castlingRights &= ~whiteKingsideMask;
-        }
-
-        if (capturedPiece != null && capturedPiece.getType() == PieceType.Rook && dest.isCorner()) {
-            if (dest.isTopLeft())
-                castlingRights &= ~blackQueensideMask;
-            else if (dest.isTopRight())
-                castlingRights &= ~blackKingsideMask;
-            else if (dest.isBottomLeft())
-                castlingRights &= ~whiteQueensideMask;
-            else if (dest.isBottomRight())
-                castlingRights &= ~whiteKingsideMask;
+        positionKey ^= Zobrist.castlingKeys[castlingRights];
+        castlingRights &= castlingRightsMasks[from] & castlingRightsMasks[to];
+        positionKey ^= Zobrist.castlingKeys[castlingRights];
+
+        if (PackedMove.isDoublePush(move)) {
+            setEnPassantSquare((from + to) / 2, activeColor.getInverse());
         }
 
         activeColor = activeColor.getInverse();
-        moveHistory.add(move);
+        positionKey ^= Zobrist.blackToMoveKey;
     }
 
     /**
      * Undos the last move that has been played on the board.
      */
     public void undoMove() {
-        if (moveHistory.size() == 0) {
+        if (ply == 0) {
             return;
         }
 
-        Move lastMove = moveHistory.remove(moveHistory.size() - 1);
-        Square src = lastMove.from, dest = lastMove.to;
-        Piece movedPiece = lastMove.getMovedPiece();
-
-        squares[dest.getRow()][dest.getCol()] = lastMove.getCapturedPiece();
-        squares[src.getRow()][src.getCol()] = movedPiece;
+        ply--;
+        int move = moveStack[ply];
+        int from = PackedMove.getFrom(move), to = PackedMove.getTo(move);
+        activeColor = activeColor.getInverse();
 
         // handle castling undo
-        if (movedPiece.getType() == PieceType.King) {
-            if (lastMove.isKingsideCastle()) {
-                squares[src.getRow()][Board.WIDTH - 1] = squares[dest.getRow()][dest.getCol() - 1];
-                squares[dest.getRow()][dest.getCol() - 1] = null;
-            }
-            if (lastMove.isQueensideCastle()) {
-                squares[src.getRow()][0] = squares[dest.getRow()][dest.getCol() + 1];
-                squares[dest.getRow()][dest.getCol() + 1] = null;
+        if (PackedMove.isCastle(move)) {
+            int rankStart = to - to % Board.WIDTH;
+            if (from < to) {
+                putPiece(removePiece(to - 1), rankStart + Board.WIDTH - 1);
+            } else {
+                putPiece(removePiece(to + 1), rankStart);
             }
         }
 
-        castlingRights = lastMove.getPrevCastlingRights();
-        activeColor = activeColor.getInverse();
+        removePiece(to);
+        putPiece(Piece.of(movedPieceStack[ply]), from);
+        int capturedPiece = capturedPieceStack[ply];
+        if (capturedPiece != -1) {
+            putPiece(Piece.of(capturedPiece), PackedMove.isEnPassant(move) ? enPassantCaptureSquare(to) : to);
+        }
+
+        castlingRights = castlingRightsStack[ply];
+        enPassantSquare = enPassantStack[ply];
+        halfmoveClock = halfmoveClockStack[ply];
+        positionKey = positionKeyStack[ply];
     }
 
     /**
@@ -224,8 +928,8 @@ public class Board {
      * @return Last move that has been made or null if no moves have been played
      */
     public Move getLastMove() {
-        if (0 < moveHistory.size()) {
-            return moveHistory.get(moveHistory.size() - 1);
+        if (0 < ply) {
+            return historyMove(ply - 1);
         }
         return null;
     }
@@ -236,9 +940,9 @@ public class Board {
      * @return All of the move that have been played.
      */
     public Move[] getMoves() {
-        Move[] moves = new Move[moveHistory.size()];
+        Move[] moves = new Move[ply];
         for (int i = 0; i < moves.length; i++) {
-            moves[i] = moveHistory.get(i);
+            moves[i] = historyMove(i);
         }
         return moves;
     }
@@ -263,6 +967,37 @@ public class Board {
         PGNParser.loadPGN(this, pgn);
     }
 
+    /**
+     * Loads the position described by the FEN string, the move history is
+     * cleared. The board is left unchanged if the string is invalid.
+     * 
+     * @param fen The string that contains the position in FEN notation
+     * @throws InvalidFENException If the string is not a valid FEN string
+     */
+    public void loadFEN(String fen) throws InvalidFENException {
+        FENParser.loadFEN(this, fen);
+    }
+
+    /**
+     * Appends the current position in FEN notation to the builder.
+     * 
+     * @param sb The builder to append to
+     */
+    public void toFEN(StringBuilder sb) {
+        FENParser.writeFEN(sb, this);
+    }
+
+    /**
+     * Returns the current position in FEN notation.
+     * 
+     * @return The FEN string of the position
+     */
+    public String toFEN() {
+        StringBuilder sb = new StringBuilder();
+        toFEN(sb);
+        return sb.toString();
+    }
+
     /**
      * Writes the moves that have been played on the board to the specified output
      * described by the PGN format.
@@ -280,7 +1015,7 @@ public class Board {
      * @return The kingside castling availability of the specified player
      */
     public boolean canCastleKingside(PieceColor color) {
-        return (castlingRights & (color == PieceColor.WHITE ? whiteKingsideMask : blackKingsideMask)) != 0;
+        return hasCastlingRight(castlingRights, color, true);
     }
 
     /**
@@ -290,7 +1025,32 @@ public class Board {
      * @return The queenside castling availability of the specified player
      */
     public boolean canCastleQueenside(PieceColor color) {
-        return (castlingRights & (color == PieceColor.WHITE ? whiteQueensideMask : blackQueensideMask)) != 0;
+        return hasCastlingRight(castlingRights, color, false);
+    }
+
+    /**
+     * Checks if the castling rights contain the right of the color to castle to
+     * the specified side.
+     */
+    static boolean hasCastlingRight(byte castlingRights, PieceColor color, boolean kingside) {
+        byte mask;
+        if (color == PieceColor.WHITE) {
+            mask = kingside ? whiteKingsideMask : whiteQueensideMask;
+        } else {
+            mask = kingside ? blackKingsideMask : blackQueensideMask;
+        }
+        return (castlingRights & mask) != 0;
+    }
+
+    /**
+     * Returns the square that can be captured en passant, this is the square that a
+     * pawn skipped with its double push in the last move. It's only set if an
+     * enemy pawn is in place to make the capture.
+     * 
+     * @return The en passant square or null if there is none
+     */
+    public Square getEnPassantSquare() {
+        return enPassantSquare == -1 ? null : Square.of(enPassantSquare);
     }
 
     /**
@@ -315,34 +1075,87 @@ public class Board {
         return isLegalSquare(pos.rank, pos.file);
     }
 
+    /**
+     * Returns the Zobrist key of the position. It covers the pieces, the active
+     * color and the castling rights, so boards that are equal have the same key.
+     * 
+     * @return The 64 bit key of the position
+     */
+    public long getPositionKey() {
+        return positionKey;
+    }
+
+    /**
+     * Evaluates the position by the material and the placement of the pieces. The
+     * middlegame and endgame scores are blended by the material left on the board,
+     * both are updated with every move, so the call doesn't look at the pieces.
+     * 
+     * @return The score in centipawns from the view of the active color, positive
+     *         if the active color is better
+     */
+    public int evaluate() {
+        int middlegamePhase = Math.min(phase, Evaluation.MAX_PHASE);
+        int score = (middlegameScore * middlegamePhase
+                + endgameScore * (Evaluation.MAX_PHASE - middlegamePhase)) / Evaluation.MAX_PHASE;
+        return activeColor == PieceColor.WHITE ? score : -score;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(positionKey);
+    }
+
     @Override
     public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof Board)) {
+            return false;
+        }
         Board other = (Board) obj;
-        for (int i = 0; i < WIDTH * HEIGHT; i++) {
-            Piece p1 = squares[i / WIDTH][i % WIDTH];
-            Piece p2 = other.squares[i / WIDTH][i % WIDTH];
-            if (p1 != p2 && !p1.equals(p2)) {
+        if (positionKey != other.positionKey) {
+            return false;
+        }
+        for (int i = 0; i < pieceBitboards.length; i++) {
+            if (pieceBitboards[i] != other.pieceBitboards[i]) {
                 return false;
             }
         }
-        return castlingRights == other.castlingRights && activeColor == other.activeColor;
+        return castlingRights == other.castlingRights && activeColor == other.activeColor
+                && enPassantSquare == other.enPassantSquare;
     }
 
     /**
-     * Finds the square that the specified piece is standing on.
-     * 
-     * @param p The piece to find
-     * @return The square that the piece is located on
+     * Removes every piece and the move history from the board.
      */
-    protected Square findPiece(Piece p) {
-        for (int rank = 0; rank < squares.length; rank++) {
-            for (int file = 0; file < squares[rank].length; file++) {
-                if (squares[rank][file] == p) {
-                    return new Square(rank, file);
-                }
-            }
+    private void clear() {
+        Arrays.fill(this.pieceBitboards, 0L);
+        Arrays.fill(this.colorBitboards, 0L);
+        Arrays.fill(this.mailbox, null);
+        this.occupied = 0L;
+        this.positionKey = 0L;
+        this.middlegameScore = 0;
+        this.endgameScore = 0;
+        this.phase = 0;
+        this.activeColor = PieceColor.WHITE;
+        this.castlingRights = 0b0000;
+        this.enPassantSquare = -1;
+        this.halfmoveClock = 0;
+        this.startPly = 0;
+        this.hasLegalMoves = false;
+        this.ply = 0;
+
+        // The stacks of a used board are kept, only the entries below ply are read
+        if (this.moveStack == null) {
+            this.moveStack = new int[INITIAL_HISTORY_CAPACITY];
+            this.movedPieceStack = new byte[INITIAL_HISTORY_CAPACITY];
+            this.capturedPieceStack = new byte[INITIAL_HISTORY_CAPACITY];
+            this.castlingRightsStack = new byte[INITIAL_HISTORY_CAPACITY];
+            this.enPassantStack = new byte[INITIAL_HISTORY_CAPACITY];
+            this.halfmoveClockStack = new int[INITIAL_HISTORY_CAPACITY];
+            this.positionKeyStack = new long[INITIAL_HISTORY_CAPACITY];
         }
-        return null;
     }
 
     /**
@@ -352,49 +1165,48 @@ public class Board {
      * @param fen The string to load the position from described by the FEN notation
      */
     protected void mustLoadFEN(String fen) {
-        // Initalize default values
-        this.squares = new Piece[HEIGHT][WIDTH];
-        this.activeColor = PieceColor.WHITE;
-        this.castlingRights = 0b0000;
-        this.moveHistory = new ArrayList<>();
-
-        String[] parts = fen.split("\\s");
-
-        // Parse position
-        String pos = parts[0];
-        int row = 0, col = 0;
-        for (char c : pos.toCharArray()) {
-            if (Character.isDigit(c)) {
-                col += (int) (c - '0');
-            } else if (c == '/') {
-                col = 0;
-                row++;
-            } else {
-                PieceType type = PieceType.fromCharacter(c);
-                PieceColor color = Character.isUpperCase(c) ? PieceColor.WHITE : PieceColor.BLACK;
-                squares[row][col] = createPiece(type, color);
-                col++;
-            }
+        try {
+            FENParser.loadFEN(this, fen);
+        } catch (InvalidFENException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
         }
+    }
 
-        // Parse active color
-        if (parts[1].contains("w")) {
-            activeColor = PieceColor.WHITE;
-        } else {
-            activeColor = PieceColor.BLACK;
+    /**
+     * Sets up the position from its parts, the move history is cleared.
+     * 
+     * @param bitboards       The bitboards of the pieces indexed like the
+     *                        bitboards of the board
+     * @param activeColor     The color to move
+     * @param castlingRights  The castling rights
+     * @param enPassantSquare The square skipped by a double pawn push or -1, it
+     *                        is only kept if a pawn can capture there
+     * @param halfmoveClock   The number of halfmoves since the last capture or pawn
+     *                        move
+     * @param fullmoveNumber  The number of the full move
+     */
+    void load(long[] bitboards, PieceColor activeColor, byte castlingRights, int enPassantSquare,
+            int halfmoveClock, int fullmoveNumber) {
+        clear();
+        for (int i = 0; i < bitboards.length; i++) {
+            long pieces = bitboards[i];
+            while (pieces != 0) {
+                putPiece(Piece.of(i), Long.numberOfTrailingZeros(pieces));
+                pieces &= pieces - 1;
+            }
         }
 
-        // Parse castling rights
-        castlingRights = 0;
-        String rights = parts[2];
-        if (rights.contains("K"))
-            castlingRights |= whiteKingsideMask;
-        if (rights.contains("Q"))
-            castlingRights |= whiteQueensideMask;
-        if (rights.contains("k"))
-            castlingRights |= blackKingsideMask;
-        if (rights.contains("q"))
-            castlingRights |= blackQueensideMask;
+        this.activeColor = activeColor;
+        this.castlingRights = castlingRights;
+        this.halfmoveClock = halfmoveClock;
+        this.startPly = 2 * (fullmoveNumber - 1) + (activeColor == PieceColor.BLACK ? 1 : 0);
+        positionKey ^= Zobrist.castlingKeys[castlingRights];
+        if (activeColor == PieceColor.BLACK) {
+            positionKey ^= Zobrist.blackToMoveKey;
+        }
+        if (enPassantSquare != -1) {
+            setEnPassantSquare(enPassantSquare, activeColor);
+        }
     }
 
     /**
@@ -402,58 +1214,487 @@ public class Board {
      * (This means that the move can be played and the player's king will not be in
      * check)
      * 
-     * @param move The move to test
+     * @param move The packed move to test
      * @return True if the move is legal else it's false
      */
-    private boolean isLegal(Move move) {
-        PieceColor curColor = activeColor;
-        mustMakeMove(move);
+    private boolean isLegal(int move) {
+        return legalMoves().contains(move);
+    }
+
+    /**
+     * Returns the legal moves of the current position, they are cached until the
+     * position changes.
+     * 
+     * @return The legal moves, the list must not be modified
+     */
+    private MoveList legalMoves() {
+        if (!hasLegalMoves || legalMovesKey != positionKey) {
+            generateMoves(legalMoves);
+            legalMovesKey = positionKey;
+            hasLegalMoves = true;
+        }
+        return legalMoves;
+    }
+
+    /**
+     * Returns the pieces of the specified color that attack the square.
+     * 
+     * @param index    The index of the square
+     * @param color    The color of the attacking pieces
+     * @param occupied Bitboard of the occupied squares used for the sliders
+     * @return Bitboard of the attacking pieces
+     */
+    private long attackersTo(int index, PieceColor color, long occupied) {
+        int base = color.ordinal() * PIECE_TYPES;
+        long queens = pieceBitboards[base + PieceType.Queen.ordinal()];
+        return (Attacks.pawn(color.getInverse(), index) & pieceBitboards[base + PieceType.Pawn.ordinal()])
+                | (Attacks.knight(index) & pieceBitboards[base + PieceType.Knight.ordinal()])
+                | (Attacks.king(index) & pieceBitboards[base + PieceType.King.ordinal()])
+                | (Attacks.bishop(index, occupied) & (pieceBitboards[base + PieceType.Bishop.ordinal()] | queens))
+                | (Attacks.rook(index, occupied) & (pieceBitboards[base + PieceType.Rook.ordinal()] | queens));
+    }
 
-        // Find position of the king
-        Square kingPos = null;
-        for (int i = 0; i < Board.WIDTH * Board.HEIGHT; i++) {
-            Piece piece = squares[i / Board.WIDTH][i % Board.WIDTH];
-            if (piece != null && piece.getColor() == curColor && piece.getType() == PieceType.King) {
-                kingPos = new Square(i / Board.WIDTH, i % Board.WIDTH);
+    /**
+     * Checks if any piece of the specified color attacks the square.
+     * 
+     * @param index The index of the square
+     * @param color The color of the attacking pieces
+     * @return True if the square is attacked else false
+     */
+    private boolean isSquareAttacked(int index, PieceColor color) {
+        return attackersTo(index, color, occupied) != 0;
+    }
+
+    /**
+     * Returns the pieces of the active color that are pinned to their king, a
+     * pinned piece may only move along the line between the king and the pinner.
+     * 
+     * @param king The index of the square of the king
+     * @return Bitboard of the pinned pieces
+     */
+    private long pinnedPieces(int king) {
+        PieceColor enemy = activeColor.getInverse();
+        int base = enemy.ordinal() * PIECE_TYPES;
+        long queens = pieceBitboards[base + PieceType.Queen.ordinal()];
+        long enemyPieces = colorBitboards[enemy.ordinal()];
+
+        // Enemy sliders that would attack the king if our pieces were not there
+        long snipers = (Attacks.rook(king, enemyPieces) & (pieceBitboards[base + PieceType.Rook.ordinal()] | queens))
+                | (Attacks.bishop(king, enemyPieces) & (pieceBitboards[base + PieceType.Bishop.ordinal()] | queens));
+
+        long pinned = 0L;
+        while (snipers != 0) {
+            int sniper = Long.numberOfTrailingZeros(snipers);
+            snipers &= snipers - 1;
+            long blockers = Attacks.between(king, sniper) & occupied;
+            if (blockers != 0 && (blockers & (blockers - 1)) == 0) {
+                pinned |= blockers & colorBitboards[activeColor.ordinal()];
             }
         }
+        return pinned;
+    }
 
-        // Check that anything is attacking it
-        for (int i = 0; i < Board.WIDTH * Board.HEIGHT; i++) {
-            Piece piece = squares[i / Board.WIDTH][i % Board.WIDTH];
-            if (piece != null && piece.getColor() == activeColor && piece.isAttacking(kingPos)) {
-                undoMove();
-                return false;
+    /**
+     * Writes the legal moves of the active color when its king is in check. The
+     * king can step out of the check, and if there is only one checker it can also
+     * be captured or the check can be blocked.
+     * 
+     * @param moves    The list to write the packed moves into
+     * @param king     The index of the square of the king
+     * @param checkers    Bitboard of the pieces giving check
+     * @param pinned      Bitboard of the pinned pieces
+     * @param targets     Bitboard of the squares the pieces may move to
+     * @param pushTargets Bitboard of the squares the pawns may push to
+     */
+    private void generateEvasions(MoveList moves, int king, long checkers, long pinned, long targets,
+            long pushTargets) {
+        generateKingMoves(moves, king, targets);
+
+        // In double check only the king can move
+        if ((checkers & (checkers - 1)) != 0) {
+            return;
+        }
+
+        int checker = Long.numberOfTrailingZeros(checkers);
+        long blocks = Attacks.between(king, checker) | checkers;
+        generatePieceMoves(moves, blocks & targets, blocks & pushTargets, pinned, king);
+    }
+
+    /**
+     * Writes the king moves to squares that are not attacked by the opponent.
+     * 
+     * @param moves   The list to write the packed moves into
+     * @param king    The index of the square of the king
+     * @param targets Bitboard of the squares the king may move to
+     */
+    private void generateKingMoves(MoveList moves, int king, long targets) {
+        PieceColor enemy = activeColor.getInverse();
+        long enemyPieces = colorBitboards[enemy.ordinal()];
+        // Without the king a slider checking along a line also attacks the squares
+        // behind the king
+        long occupancy = occupied & ~Bitboard.bit(king);
+
+        targets &= Attacks.king(king) & ~colorBitboards[activeColor.ordinal()];
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            if (attackersTo(to, enemy, occupancy) == 0) {
+                moves.add(PackedMove.of(king, to, (enemyPieces & Bitboard.bit(to)) != 0 ? PackedMove.FLAG_CAPTURE : 0));
             }
         }
-        undoMove();
-        return true;
     }
 
     /**
-     * Returns an instance of the specified piece bound to this board.
+     * Writes the legal moves of every piece of the active color except the king.
+     * 
+     * @param moves       The list to write the packed moves into
+     * @param targets     Bitboard of the squares the pieces are allowed to move to
+     * @param pushTargets Bitboard of the squares the pawns are allowed to push to
+     * @param pinned      Bitboard of the pinned pieces
+     * @param king        The index of the square of the king, -1 if there is no
+     *                    king
+     */
+    private void generatePieceMoves(MoveList moves, long targets, long pushTargets, long pinned, int king) {
+        PieceColor color = activeColor;
+        int base = color.ordinal() * PIECE_TYPES;
+        long enemy = colorBitboards[color.getInverse().ordinal()];
+        targets &= ~colorBitboards[color.ordinal()];
+
+        generatePawnMoves(moves, pieceBitboards[base + PieceType.Pawn.ordinal()], enemy, targets, pushTargets,
+                pinned, king);
+
+        // A pinned knight can never move along the pin
+        long knights = pieceBitboards[base + PieceType.Knight.ordinal()] & ~pinned;
+        while (knights != 0) {
+            int from = Long.numberOfTrailingZeros(knights);
+            knights &= knights - 1;
+            addMoves(moves, from, Attacks.knight(from) & targets, enemy);
+        }
+
+        long diagonals = pieceBitboards[base + PieceType.Bishop.ordinal()]
+                | pieceBitboards[base + PieceType.Queen.ordinal()];
+        while (diagonals != 0) {
+            int from = Long.numberOfTrailingZeros(diagonals);
+            diagonals &= diagonals - 1;
+            long destinations = Attacks.bishop(from, occupied) & targets;
+            if ((pinned & Bitboard.bit(from)) != 0) {
+                destinations &= Attacks.line(king, from);
+            }
+            addMoves(moves, from, destinations, enemy);
+        }
+
+        long orthogonals = pieceBitboards[base + PieceType.Rook.ordinal()]
+                | pieceBitboards[base + PieceType.Queen.ordinal()];
+        while (orthogonals != 0) {
+            int from = Long.numberOfTrailingZeros(orthogonals);
+            orthogonals &= orthogonals - 1;
+            long destinations = Attacks.rook(from, occupied) & targets;
+            if ((pinned & Bitboard.bit(from)) != 0) {
+                destinations &= Attacks.line(king, from);
+            }
+            addMoves(moves, from, destinations, enemy);
+        }
+    }
+
+    /**
+     * Writes the legal pawn moves of the active color into the list.
+     * 
+     * @param moves       The list to write the packed moves into
+     * @param pawns       Bitboard of the pawns of the active color
+     * @param enemy       Bitboard of the pieces of the opponent
+     * @param targets     Bitboard of the squares the pawns are allowed to capture
+     *                    on
+     * @param pushTargets Bitboard of the squares the pawns are allowed to push to
+     * @param pinned      Bitboard of the pinned pieces
+     * @param king        The index of the square of the king
+     */
+    private void generatePawnMoves(MoveList moves, long pawns, long enemy, long targets, long pushTargets,
+            long pinned, int king) {
+        long empty = ~occupied;
+        long singlePushes, doublePushes;
+        int forward;
+        if (activeColor == PieceColor.WHITE) {
+            forward = -Board.WIDTH;
+            singlePushes = (pawns >>> Board.WIDTH) & empty;
+            doublePushes = ((singlePushes & whiteDoublePushRow) >>> Board.WIDTH) & empty;
+        } else {
+            forward = Board.WIDTH;
+            singlePushes = (pawns << Board.WIDTH) & empty;
+            doublePushes = ((singlePushes & blackDoublePushRow) << Board.WIDTH) & empty;
+        }
+        singlePushes &= pushTargets;
+        doublePushes &= pushTargets;
+
+        while (singlePushes != 0) {
+            int to = Long.numberOfTrailingZeros(singlePushes);
+            singlePushes &= singlePushes - 1;
+            if (!breaksPin(to - forward, to, pinned, king)) {
+                addPawnMove(moves, to - forward, to, 0);
+            }
+        }
+        while (doublePushes != 0) {
+            int to = Long.numberOfTrailingZeros(doublePushes);
+            doublePushes &= doublePushes - 1;
+            if (!breaksPin(to - 2 * forward, to, pinned, king)) {
+                moves.add(PackedMove.of(to - 2 * forward, to, PackedMove.FLAG_DOUBLE_PUSH));
+            }
+        }
+
+        while (pawns != 0) {
+            int from = Long.numberOfTrailingZeros(pawns);
+            pawns &= pawns - 1;
+            long captures = Attacks.pawn(activeColor, from) & enemy & targets;
+            while (captures != 0) {
+                int to = Long.numberOfTrailingZeros(captures);
+                captures &= captures - 1;
+                if (!breaksPin(from, to, pinned, king)) {
+                    addPawnMove(moves, from, to, PackedMove.FLAG_CAPTURE);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the legal en passant captures of the active color. Removing two pawns
+     * from the same row can expose the king in ways that the pin masks don't
+     * cover, so every capture is checked against the occupancy after the move.
+     * 
+     * @param moves The list to write the packed moves into
+     * @param king  The index of the square of the king, -1 if there is no king
+     */
+    private void generateEnPassantMoves(MoveList moves, int king) {
+        if (enPassantSquare == -1) {
+            return;
+        }
+
+        PieceColor enemy = activeColor.getInverse();
+        int captured = enPassantCaptureSquare(enPassantSquare);
+        long candidates = Attacks.pawn(enemy, enPassantSquare)
+                & pieceBitboards[bitboardIndex(PieceType.Pawn, activeColor)];
+        while (candidates != 0) {
+            int from = Long.numberOfTrailingZeros(candidates);
+            candidates &= candidates - 1;
+            if (king != -1) {
+                long occupancy = (occupied ^ Bitboard.bit(from) ^ Bitboard.bit(captured))
+                        | Bitboard.bit(enPassantSquare);
+                if ((attackersTo(king, enemy, occupancy) & ~Bitboard.bit(captured)) != 0) {
+                    continue;
+                }
+            }
+            moves.add(PackedMove.of(from, enPassantSquare, PackedMove.FLAG_CAPTURE | PackedMove.FLAG_EN_PASSANT));
+        }
+    }
+
+    /**
+     * Returns the square of the pawn that is captured by an en passant capture of
+     * the active color landing on the specified square.
+     */
+    private int enPassantCaptureSquare(int to) {
+        return activeColor == PieceColor.WHITE ? to + Board.WIDTH : to - Board.WIDTH;
+    }
+
+    /**
+     * Sets the en passant square if a pawn of the specified color can capture
+     * there.
+     * 
+     * @param index The index of the square that the pawn skipped
+     * @param color The color of the pawns that could capture
+     */
+    private void setEnPassantSquare(int index, PieceColor color) {
+        long capturers = Attacks.pawn(color.getInverse(), index) & pieceBitboards[bitboardIndex(PieceType.Pawn, color)];
+        if (capturers != 0) {
+            enPassantSquare = index;
+            positionKey ^= Zobrist.enPassantKeys[index % Board.WIDTH];
+        }
+    }
+
+    /**
+     * Checks if the move takes a pinned piece off the line of its pin.
+     */
+    private static boolean breaksPin(int from, int to, long pinned, int king) {
+        return (pinned & Bitboard.bit(from)) != 0 && (Attacks.line(king, from) & Bitboard.bit(to)) == 0;
+    }
+
+    /**
+     * Adds a pawn move to the list, if the pawn reaches the last row the move is
+     * added once for every piece type that the pawn can promote to.
+     */
+    private void addPawnMove(MoveList moves, int from, int to, int flags) {
+        if ((Bitboard.bit(to) & promotionRows) != 0) {
+            for (PieceType promotion : promotionTypes) {
+                moves.add(PackedMove.of(from, to, promotion, flags));
+            }
+        } else {
+            moves.add(PackedMove.of(from, to, flags));
+        }
+    }
+
+    /**
+     * Adds a move from the square to every square of the targets bitboard.
+     */
+    private static void addMoves(MoveList moves, int from, long targets, long enemy) {
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            moves.add(PackedMove.of(from, to, (enemy & Bitboard.bit(to)) != 0 ? PackedMove.FLAG_CAPTURE : 0));
+        }
+    }
+
+    /**
+     * Adds the castling moves of the active color, the squares that the king
+     * crosses must be empty and must not be attacked. It is only called when the
+     * king is not in check.
+     * 
+     * @param moves The list to write the packed moves into
+     * @param king  The index of the square of the king
+     */
+    private void generateCastlingMoves(MoveList moves, int king) {
+        PieceColor color = activeColor, enemy = color.getInverse();
+        int rankStart = color == PieceColor.WHITE ? (Board.HEIGHT - 1) * Board.WIDTH : 0;
+        if (king != rankStart + 4) {
+            return;
+        }
+
+        long rooks = pieceBitboards[bitboardIndex(PieceType.Rook, color)];
+        if (canCastleKingside(color) && (rooks & Bitboard.bit(rankStart + 7)) != 0
+                && (occupied & (Bitboard.bit(rankStart + 5) | Bitboard.bit(rankStart + 6))) == 0
+                && !isSquareAttacked(king + 1, enemy)
+                && !isSquareAttacked(king + 2, enemy)) {
+            moves.add(PackedMove.of(king, king + 2, PackedMove.FLAG_CASTLE));
+        }
+
+        long between = Bitboard.bit(rankStart + 1) | Bitboard.bit(rankStart + 2) | Bitboard.bit(rankStart + 3);
+        if (canCastleQueenside(color) && (rooks & Bitboard.bit(rankStart)) != 0
+                && (occupied & between) == 0
+                && !isSquareAttacked(king - 1, enemy)
+                && !isSquareAttacked(king - 2, enemy)) {
+            moves.add(PackedMove.of(king, king - 2, PackedMove.FLAG_CASTLE));
+        }
+    }
+
+    /**
+     * Packs the move so it can be played on the current position.
+     * 
+     * @param move The move to pack
+     * @return The packed move
+     */
+    private int toPacked(Move move) {
+        int from = Bitboard.squareIndex(move.from), to = Bitboard.squareIndex(move.to);
+        Piece piece = mailbox[from];
+        int flags = mailbox[to] != null ? PackedMove.FLAG_CAPTURE : 0;
+        PieceType promotion = null;
+        if (piece.getType() == PieceType.King && Math.abs(move.to.file - move.from.file) == 2) {
+            flags |= PackedMove.FLAG_CASTLE;
+        } else if (piece.getType() == PieceType.Pawn) {
+            if (Math.abs(move.to.rank - move.from.rank) == 2) {
+                flags |= PackedMove.FLAG_DOUBLE_PUSH;
+            }
+            if (to == enPassantSquare && move.from.file != move.to.file) {
+                flags |= PackedMove.FLAG_CAPTURE | PackedMove.FLAG_EN_PASSANT;
+            }
+            if ((Bitboard.bit(to) & promotionRows) != 0) {
+                promotion = move.getPromotionTo();
+            }
+        }
+        return PackedMove.of(from, to, promotion, flags);
+    }
+
+    /**
+     * Creates a move object from a packed move of the current position.
+     * 
+     * @param packed The packed move
+     * @return The move with the moved and captured pieces set
+     */
+    private Move toMove(int packed) {
+        int from = PackedMove.getFrom(packed), to = PackedMove.getTo(packed);
+        Piece capturedPiece = mailbox[PackedMove.isEnPassant(packed) ? enPassantCaptureSquare(to) : to];
+        return new Move(Square.of(from), Square.of(to), promotionOf(packed), mailbox[from], capturedPiece);
+    }
+
+    /**
+     * Creates a move object from the specified entry of the move history.
+     * 
+     * @param index The index of the move in the history
+     * @return The move with all of its metadata set
+     */
+    private Move historyMove(int index) {
+        int packed = moveStack[index];
+        Piece capturedPiece = capturedPieceStack[index] != -1 ? Piece.of(capturedPieceStack[index]) : null;
+        return new Move(Square.of(PackedMove.getFrom(packed)), Square.of(PackedMove.getTo(packed)),
+                promotionOf(packed), Piece.of(movedPieceStack[index]), capturedPiece);
+    }
+
+    /**
+     * Returns the piece type to promote to for a move object, non promoting moves
+     * keep the default of the move class.
+     */
+    private static PieceType promotionOf(int packed) {
+        return PackedMove.isPromotion(packed) ? PackedMove.getPromotion(packed) : PieceType.Queen;
+    }
+
+    /**
+     * Doubles the capacity of the move history.
+     */
+    private void growHistory() {
+        int capacity = moveStack.length * 2;
+        moveStack = Arrays.copyOf(moveStack, capacity);
+        movedPieceStack = Arrays.copyOf(movedPieceStack, capacity);
+        capturedPieceStack = Arrays.copyOf(capturedPieceStack, capacity);
+        castlingRightsStack = Arrays.copyOf(castlingRightsStack, capacity);
+        enPassantStack = Arrays.copyOf(enPassantStack, capacity);
+        halfmoveClockStack = Arrays.copyOf(halfmoveClockStack, capacity);
+        positionKeyStack = Arrays.copyOf(positionKeyStack, capacity);
+    }
+
+    /**
+     * Places the piece on the specified square, the square must be empty.
+     * 
+     * @param piece The piece to place
+     * @param index The index of the square
+     */
+    private void putPiece(Piece piece, int index) {
+        long bit = Bitboard.bit(index);
+        mailbox[index] = piece;
+        int bitboard = piece.index;
+        pieceBitboards[bitboard] |= bit;
+        positionKey ^= Zobrist.pieceKeys[bitboard][index];
+        middlegameScore += Evaluation.middlegameScores[bitboard][index];
+        endgameScore += Evaluation.endgameScores[bitboard][index];
+        phase += Evaluation.phaseWeights[bitboard];
+        colorBitboards[piece.getColor().ordinal()] |= bit;
+        occupied |= bit;
+    }
+
+    /**
+     * Removes the piece from the specified square, the square must be occupied.
+     * 
+     * @param index The index of the square
+     * @return The removed piece
+     */
+    private Piece removePiece(int index) {
+        long bit = Bitboard.bit(index);
+        Piece piece = mailbox[index];
+        mailbox[index] = null;
+        int bitboard = piece.index;
+        pieceBitboards[bitboard] &= ~bit;
+        positionKey ^= Zobrist.pieceKeys[bitboard][index];
+        middlegameScore -= Evaluation.middlegameScores[bitboard][index];
+        endgameScore -= Evaluation.endgameScores[bitboard][index];
+        phase -= Evaluation.phaseWeights[bitboard];
+        colorBitboards[piece.getColor().ordinal()] &= ~bit;
+        occupied &= ~bit;
+        return piece;
+    }
+
+    /**
+     * Returns the index of the bitboard that stores the specified kind of piece.
      * 
      * @param type  The type of the piece
      * @param color The color of the piece
-     * @return Instance of the specified piece
-     */
-    private Piece createPiece(PieceType type, PieceColor color) {
-        switch (type) {
-            case King:
-                return new King(this, color);
-            case Queen:
-                return new Queen(this, color);
-            case Rook:
-                return new Rook(this, color);
-            case Bishop:
-                return new Bishop(this, color);
-            case Knight:
-                return new Knight(this, color);
-            case Pawn:
-                return new Pawn(this, color);
-            default:
-                return null;
-        }
+     * @return The index of the bitboard
+     */
+    static int bitboardIndex(PieceType type, PieceColor color) {
+        return color.ordinal() * PIECE_TYPES + type.ordinal();
     }
 
     public class IllegalMove extends Exception {
@@ -0,0 +1,254 @@
+package chess.core;
+
+public class FENParser {
+    private static final String castlingCharacters = "KQkq";
+    // The clocks are rejected above this value, which still fits into an int
+    private static final int MAX_CLOCK = 999_999;
+
+    /**
+     * Loads the position described by the FEN string on the board, the move
+     * history of the board is cleared. The string is read in a single pass and the
+     * board is only changed if the whole string is valid. The en passant square
+     * and the clocks can be left out.
+     * 
+     * @param board The board to load the position on
+     * @param fen   The string that contains the position in FEN notation
+     * @throws InvalidFENException If the string is not a valid FEN string
+     */
+    public static void loadFEN(Board board, String fen) throws InvalidFENException {
+        long[] bitboards = new long[2 * PieceType.values().length];
+        int length = fen.length();
+        int i = 0;
+
+        // Piece placement
+        int row = 0, col = 0;
+        for (; i < length && fen.charAt(i) != ' '; i++) {
+            char c = fen.charAt(i);
+            if ('1' <= c && c <= '8') {
+                col += c - '0';
+            } else if (c == '/') {
+                if (col != Board.WIDTH) {
+                    throw new InvalidFENException(String.format("Row %d doesn't have %d squares", row + 1, Board.WIDTH));
+                }
+                row++;
+                col = 0;
+            } else {
+                PieceType type = PieceType.fromCharacter(c);
+                if (type == null) {
+                    throw new InvalidFENException(String.format("Invalid piece character: %c", c));
+                }
+                if (Board.HEIGHT <= row || Board.WIDTH <= col) {
+                    throw new InvalidFENException("Piece outside of the board");
+                }
+                PieceColor color = Character.isUpperCase(c) ? PieceColor.WHITE : PieceColor.BLACK;
+                bitboards[Board.bitboardIndex(type, color)] |= Bitboard.bit(Bitboard.squareIndex(row, col));
+                col++;
+            }
+            if (Board.WIDTH < col) {
+                throw new InvalidFENException(String.format("Row %d has more than %d squares", row + 1, Board.WIDTH));
+            }
+        }
+        if (row != Board.HEIGHT - 1 || col != Board.WIDTH) {
+            throw new InvalidFENException("The piece placement doesn't cover the board");
+        }
+        for (PieceColor color : PieceColor.values()) {
+            if (Long.bitCount(bitboards[Board.bitboardIndex(PieceType.King, color)]) > 1) {
+                throw new InvalidFENException("More than one king of the same color");
+            }
+        }
+
+        // Active color
+        i = skipSpace(fen, i);
+        if (i + 1 < length && fen.charAt(i + 1) != ' ') {
+            throw new InvalidFENException("Invalid active color");
+        }
+        PieceColor activeColor;
+        if (fen.charAt(i) == 'w') {
+            activeColor = PieceColor.WHITE;
+        } else if (fen.charAt(i) == 'b') {
+            activeColor = PieceColor.BLACK;
+        } else {
+            throw new InvalidFENException(String.format("Invalid active color: %c", fen.charAt(i)));
+        }
+        i++;
+
+        // Castling rights
+        i = skipSpace(fen, i);
+        byte castlingRights = 0;
+        if (i < length && fen.charAt(i) == '-') {
+            i++;
+        } else {
+            int start = i;
+            for (; i < length && fen.charAt(i) != ' '; i++) {
+                int right = castlingCharacters.indexOf(fen.charAt(i));
+                if (right == -1 || (castlingRights & 1 << right) != 0) {
+                    throw new InvalidFENException(String.format("Invalid castling rights at: %c", fen.charAt(i)));
+                }
+                castlingRights |= 1 << right;
+            }
+            if (start == i) {
+                throw new InvalidFENException("Missing castling rights");
+            }
+        }
+
+        // En passant square, optional
+        int enPassantSquare = -1;
+        if (hasNextField(fen, i)) {
+            i = skipSpace(fen, i);
+            if (fen.charAt(i) == '-') {
+                i++;
+            } else {
+                if (length < i + 2 || fen.charAt(i) < 'a' || 'h' < fen.charAt(i)) {
+                    throw new InvalidFENException("Invalid en passant square");
+                }
+                int file = fen.charAt(i) - 'a';
+                int rank = activeColor == PieceColor.WHITE ? '6' : '3';
+                if (fen.charAt(i + 1) != rank) {
+                    throw new InvalidFENException("The en passant square is not behind a pawn that moved two squares");
+                }
+                int enPassantRow = Board.HEIGHT - (rank - '0');
+                // The pawn that moved two squares stands in front of the square
+                // and the square it passed is empty
+                int pawnRow = activeColor == PieceColor.WHITE ? enPassantRow + 1 : enPassantRow - 1;
+                long pawns = bitboards[Board.bitboardIndex(PieceType.Pawn, activeColor.getInverse())];
+                if ((pawns & Bitboard.bit(Bitboard.squareIndex(pawnRow, file))) == 0) {
+                    throw new InvalidFENException("No pawn in front of the en passant square");
+                }
+                enPassantSquare = Bitboard.squareIndex(enPassantRow, file);
+                for (long bitboard : bitboards) {
+                    if ((bitboard & Bitboard.bit(enPassantSquare)) != 0) {
+                        throw new InvalidFENException("The en passant square is occupied");
+                    }
+                }
+                i += 2;
+            }
+        }
+
+        // Halfmove clock and fullmove number, optional
+        int halfmoveClock = 0, fullmoveNumber = 1;
+        if (hasNextField(fen, i)) {
+            i = skipSpace(fen, i);
+            int start = i;
+            halfmoveClock = 0;
+            for (; i < length && fen.charAt(i) != ' '; i++) {
+                halfmoveClock = appendDigit(halfmoveClock, fen.charAt(i));
+            }
+            if (start == i) {
+                throw new InvalidFENException("Missing halfmove clock");
+            }
+        }
+        if (hasNextField(fen, i)) {
+            i = skipSpace(fen, i);
+            int start = i;
+            fullmoveNumber = 0;
+            for (; i < length && fen.charAt(i) != ' '; i++) {
+                fullmoveNumber = appendDigit(fullmoveNumber, fen.charAt(i));
+            }
+            if (start == i || fullmoveNumber < 1) {
+                throw new InvalidFENException("Invalid fullmove number");
+            }
+        }
+        if (hasNextField(fen, i)) {
+            throw new InvalidFENException("Unexpected characters after the fullmove number");
+        }
+
+        board.load(bitboards, activeColor, castlingRights, enPassantSquare, halfmoveClock, fullmoveNumber);
+    }
+
+    /**
+     * Appends the position of the board in FEN notation to the builder.
+     * 
+     * @param sb    The builder to append to
+     * @param board The board which position to write
+     */
+    public static void writeFEN(StringBuilder sb, Board board) {
+        for (int row = 0; row < Board.HEIGHT; row++) {
+            if (row != 0) {
+                sb.append('/');
+            }
+            int emptySquares = 0;
+            for (int col = 0; col < Board.WIDTH; col++) {
+                Piece piece = board.getPiece(row, col);
+                if (piece == null) {
+                    emptySquares++;
+                    continue;
+                }
+                if (emptySquares != 0) {
+                    sb.append((char) ('0' + emptySquares));
+                    emptySquares = 0;
+                }
+                char c = pieceCharacter(piece.getType());
+                sb.append(piece.getColor() == PieceColor.WHITE ? c : Character.toLowerCase(c));
+            }
+            if (emptySquares != 0) {
+                sb.append((char) ('0' + emptySquares));
+            }
+        }
+
+        sb.append(' ').append(board.getActiveColor() == PieceColor.WHITE ? 'w' : 'b').append(' ');
+
+        int start = sb.length();
+        if (board.canCastleKingside(PieceColor.WHITE))
+            sb.append('K');
+        if (board.canCastleQueenside(PieceColor.WHITE))
+            sb.append('Q');
+        if (board.canCastleKingside(PieceColor.BLACK))
+            sb.append('k');
+        if (board.canCastleQueenside(PieceColor.BLACK))
+            sb.append('q');
+        if (start == sb.length())
+            sb.append('-');
+
+        sb.append(' ');
+        Square enPassant = board.getEnPassantSquare();
+        if (enPassant == null) {
+            sb.append('-');
+        } else {
+            sb.append((char) ('a' + enPassant.file)).append((char) ('0' + Board.HEIGHT - enPassant.rank));
+        }
+
+        sb.append(' ').append(board.getHalfmoveClock()).append(' ').append(board.getFullmoveNumber());
+    }
+
+    private static char pieceCharacter(PieceType type) {
+        return type == PieceType.Pawn ? 'P' : type.toString().charAt(0);
+    }
+
+    private static int skipSpace(String fen, int i) throws InvalidFENException {
+        if (fen.length() <= i || fen.charAt(i) != ' ' || fen.length() <= i + 1) {
+            throw new InvalidFENException("Missing field");
+        }
+        return i + 1;
+    }
+
+    /**
+     * Checks if there is another field after the index, a space at the end of the
+     * string is not a field.
+     */
+    private static boolean hasNextField(String fen, int i) throws InvalidFENException {
+        if (i == fen.length() - 1 && fen.charAt(i) == ' ') {
+            throw new InvalidFENException("Trailing space after the last field");
+        }
+        return i < fen.length();
+    }
+
+    /**
+     * Appends the digit to the end of the number of a clock.
+     */
+    private static int appendDigit(int number, char c) throws InvalidFENException {
+        if (c < '0' || '9' < c) {
+            throw new InvalidFENException(String.format("Invalid number at: %c", c));
+        }
+        number = number * 10 + c - '0';
+        if (number > MAX_CLOCK) {
+            throw new InvalidFENException(String.format("The clock is larger than %d", MAX_CLOCK));
+        }
+        return number;
+    }
+
+    public static class InvalidFENException extends Exception {
+        public InvalidFENException(String reason) {
+            super(reason);
+        }
+    }
+}
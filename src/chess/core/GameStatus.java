@@ -0,0 +1,14 @@
+package chess.core;
+
+public enum GameStatus {
+    ONGOING, CHECKMATE, STALEMATE, FIFTY_MOVE_DRAW, THREEFOLD_REPETITION;
+
+    /**
+     * Checks if the game has ended.
+     * 
+     * @return True if no more moves can be played else false
+     */
+    public boolean isOver() {
+        return this != ONGOING;
+    }
+}
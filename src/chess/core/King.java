@@ -4,52 +4,40 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class King extends Piece {
-    private static final int[][] moveDirections = new int[][] {
-            { -1, 0 }, { 1, 0 }, { 0, -1 }, { 0, 1 },
-            { -1, 1 }, { -1, -1 }, { 1, -1 }, { 1, 1 }
-    };
-
-    public King(Board board, PieceColor color) {
-        super(board, color);
+    // Instances are shared, use Piece.of to get one
+    King(PieceColor color) {
+        super(PieceType.King, color);
     }
 
     @Override
-    public List<Move> generateMoves() {
+    public List<Move> generateMoves(Board board, Square origin) {
         List<Move> moves = new ArrayList<Move>();
         // check if the piece is the color to move
         if (board.activeColor != color) {
             return moves;
         }
 
-        Square origin = board.findPiece(this);
-        // check if the piece is on the board
-        if (origin == null) {
+        // check if the piece is on the square
+        if (board.getPiece(origin) != this) {
             return moves;
         }
 
-        for (int[] dir : moveDirections) {
-            Square dest = new Square(origin.rank + dir[0], origin.file + dir[1]);
-            if (board.isLegalSquare(dest)) {
-                Piece p = board.squares[dest.rank][dest.file];
-                if (p == null || p.getColor() != color) {
-                    moves.add(new Move(origin, dest));
-                }
-            }
-        }
+        long targets = Attacks.king(Bitboard.squareIndex(origin)) & ~board.getOccupancy(color);
+        addMoves(moves, origin, targets);
 
         // Handle castling
         int rank = color == PieceColor.WHITE ? Board.HEIGHT - 1 : 0;
-        if (canCastleKingside()) {
-            moves.add(new Move(origin, new Square(rank, 6)));
+        if (canCastleKingside(board)) {
+            moves.add(new Move(origin, Square.of(rank, 6)));
         }
-        if (canCastleQueenside()) {
-            moves.add(new Move(origin, new Square(rank, 2)));
+        if (canCastleQueenside(board)) {
+            moves.add(new Move(origin, Square.of(rank, 2)));
         }
 
         return moves;
     }
 
-    private boolean canCastleKingside() {
+    private boolean canCastleKingside(Board board) {
         // Check the castling rights
         if (!board.canCastleKingside(color)) {
             return false;
@@ -57,26 +45,19 @@ public class King extends Piece {
 
         // Check if there are piecies in the way
         int rank = color == PieceColor.WHITE ? Board.HEIGHT - 1 : 0;
-        if (board.squares[rank][5] != null || board.squares[rank][6] != null) {
+        long between = Bitboard.bit(Bitboard.squareIndex(rank, 5)) | Bitboard.bit(Bitboard.squareIndex(rank, 6));
+        if ((board.getOccupancy() & between) != 0) {
             return false;
         }
 
         // Check that no square is attacked where the king moves
-        for (int i = 0; i < Board.WIDTH * Board.HEIGHT; i++) {
-            Piece piece = board.squares[i / Board.WIDTH][i % Board.WIDTH];
-            if (piece != null && piece.getColor() != color) {
-                // Enemy piece
-                boolean isAttacking = piece.isAttacking(new Square(rank, 4)) || piece.isAttacking(new Square(rank, 5))
-                        || piece.isAttacking(new Square(rank, 6));
-                if (isAttacking) {
-                    return false;
-                }
-            }
-        }
-        return true;
+        PieceColor enemy = color.getInverse();
+        return !board.isSquareAttacked(Square.of(rank, 4), enemy)
+                && !board.isSquareAttacked(Square.of(rank, 5), enemy)
+                && !board.isSquareAttacked(Square.of(rank, 6), enemy);
     }
 
-    private boolean canCastleQueenside() {
+    private boolean canCastleQueenside(Board board) {
         // Check the castling rights
         if (!board.canCastleQueenside(color)) {
             return false;
@@ -84,23 +65,17 @@ public class King extends Piece {
 
         // Check if there are piecies in the way
         int rank = color == PieceColor.WHITE ? Board.HEIGHT - 1 : 0;
-        if (board.squares[rank][1] != null || board.squares[rank][2] != null || board.squares[rank][3] != null) {
+        long between = Bitboard.bit(Bitboard.squareIndex(rank, 1)) | Bitboard.bit(Bitboard.squareIndex(rank, 2))
+                | Bitboard.bit(Bitboard.squareIndex(rank, 3));
+        if ((board.getOccupancy() & between) != 0) {
             return false;
         }
 
         // Check that no square is attacked where the king moves
-        for (int i = 0; i < Board.WIDTH * Board.HEIGHT; i++) {
-            Piece piece = board.squares[i / Board.WIDTH][i % Board.WIDTH];
-            if (piece != null && piece.getColor() != color) {
-                // Enemy piece
-                boolean isAttacking = piece.isAttacking(new Square(rank, 2)) || piece.isAttacking(new Square(rank, 3))
-                        || piece.isAttacking(new Square(rank, 4));
-                if (isAttacking) {
-                    return false;
-                }
-            }
-        }
-        return true;
+        PieceColor enemy = color.getInverse();
+        return !board.isSquareAttacked(Square.of(rank, 2), enemy)
+                && !board.isSquareAttacked(Square.of(rank, 3), enemy)
+                && !board.isSquareAttacked(Square.of(rank, 4), enemy);
     }
 
     @Override
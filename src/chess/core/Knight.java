@@ -4,39 +4,26 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class Knight extends Piece {
-    // The offsets that the piece can move in: {rank, file}
-    private static final int[][] moveDirections = new int[][] {
-            { 2, 1 }, { 2, -1 }, { 1, 2 }, { 1, -2 },
-            { -2, 1 }, { -2, -1 }, { -1, 2 }, { -1, -2 }
-    };
-
-    public Knight(Board board, PieceColor color) {
-        super(board, color);
+    // Instances are shared, use Piece.of to get one
+    Knight(PieceColor color) {
+        super(PieceType.Knight, color);
     }
 
     @Override
-    public List<Move> generateMoves() {
+    public List<Move> generateMoves(Board board, Square origin) {
         List<Move> moves = new ArrayList<Move>();
         // check if the piece is the color to move
         if (board.activeColor != color) {
             return moves;
         }
 
-        Square origin = board.findPiece(this);
-        // check if the piece is on the board
-        if (origin == null) {
+        // check if the piece is on the square
+        if (board.getPiece(origin) != this) {
             return moves;
         }
 
-        for (int[] dir : moveDirections) {
-            Square dest = new Square(origin.rank + dir[0], origin.file + dir[1]);
-            if (board.isLegalSquare(dest)) {
-                Piece p = board.squares[dest.rank][dest.file];
-                if (p == null || p.getColor() != color) {
-                    moves.add(new Move(origin, dest));
-                }
-            }
-        }
+        long targets = Attacks.knight(Bitboard.squareIndex(origin)) & ~board.getOccupancy(color);
+        addMoves(moves, origin, targets);
 
         return moves;
     }
@@ -1,14 +1,44 @@
 package chess.core;
 
+/**
+ * A move of a piece from one square to another. Moves are immutable values, so
+ * they can be kept, shared and compared freely; the board keeps everything that
+ * is needed for undoing a move by itself.
+ */
 public class Move {
     public final Square from, to;
-    private Piece movedPiece, capturedPiece = null;
-    private PieceType promotionTo = PieceType.Queen;
-    private byte prevCastlingRights;
+    private final PieceType promotionTo;
+    // Only known for the moves created by the board, null otherwise
+    private final Piece movedPiece, capturedPiece;
 
+    /**
+     * Creates a move, if it is a promotion the pawn promotes to a queen.
+     * 
+     * @param from The square the piece moves from
+     * @param to   The square the piece moves to
+     */
     public Move(Square from, Square to) {
+        this(from, to, PieceType.Queen);
+    }
+
+    /**
+     * Creates a move with the piece type that a pawn promotes to, the type is
+     * ignored if the move is not a promotion.
+     * 
+     * @param from        The square the piece moves from
+     * @param to          The square the piece moves to
+     * @param promotionTo The type of the piece that the pawn promotes to
+     */
+    public Move(Square from, Square to, PieceType promotionTo) {
+        this(from, to, promotionTo, null, null);
+    }
+
+    Move(Square from, Square to, PieceType promotionTo, Piece movedPiece, Piece capturedPiece) {
         this.from = from;
         this.to = to;
+        this.promotionTo = promotionTo;
+        this.movedPiece = movedPiece;
+        this.capturedPiece = capturedPiece;
     }
 
     /**
@@ -51,58 +81,23 @@ public class Move {
     /**
      * Returns the piece which the move moved.
      * 
-     * @return The piece which is moved
+     * @return The piece which is moved or null if the move was not created by the
+     *         board
      */
     protected Piece getMovedPiece() {
         return movedPiece;
     }
 
-    /**
-     * Sets the moved piece for the move.
-     * 
-     * @param movedPiece The moved piece
-     */
-    protected void setMovedPiece(Piece movedPiece) {
-        this.movedPiece = movedPiece;
-    }
-
     /**
      * Returns the captured piece.
      * 
-     * @return The captured piece
+     * @return The captured piece or null if the move is not a capture or it was
+     *         not created by the board
      */
     protected Piece getCapturedPiece() {
         return capturedPiece;
     }
 
-    /**
-     * Sets the captured piece.
-     * 
-     * @param capturedPiece The captured piece
-     */
-    protected void setCapturedPiece(Piece capturedPiece) {
-        this.capturedPiece = capturedPiece;
-    }
-
-    /**
-     * This method is used for undoing, to get the castling rights prior to this
-     * move.
-     * 
-     * @return Castling rights prior to this move
-     */
-    protected byte getPrevCastlingRights() {
-        return prevCastlingRights;
-    }
-
-    /**
-     * Sets the castling rights.
-     * 
-     * @param prevCastlingRights The castling rights
-     */
-    protected void setPrevCastlingRights(byte prevCastlingRights) {
-        this.prevCastlingRights = prevCastlingRights;
-    }
-
     /**
      * Returns the type of the piece that we are promoting to after a promoting move
      * has been played.
@@ -114,12 +109,13 @@ public class Move {
     }
 
     /**
-     * Sets the type of the piece that we are promoting to.
+     * Returns the same move with a different piece type to promote to.
      * 
-     * @param promoteTo The type of the piece that we are promoting to 
+     * @param promotionTo The type of the piece that we are promoting to
+     * @return The new move
      */
-    public void setPromotionTo(PieceType promoteTo) {
-        this.promotionTo = promoteTo;
+    public Move withPromotionTo(PieceType promotionTo) {
+        return new Move(from, to, promotionTo, movedPiece, capturedPiece);
     }
 
     @Override
@@ -128,6 +124,11 @@ public class Move {
         return this.to.equals(other.to) && this.from.equals(other.from);
     }
 
+    @Override
+    public int hashCode() {
+        return from.hashCode() * 31 + to.hashCode();
+    }
+
     @Override
     public String toString() {
         return from + " -> " + to;
@@ -0,0 +1,79 @@
+package chess.core;
+
+/**
+ * A reusable buffer of packed moves. Generating moves into a preallocated list
+ * does not allocate anything on the heap.
+ */
+public class MoveList {
+    /**
+     * More moves than this are not possible in any legal chess position.
+     */
+    public static final int MAX_MOVES = 256;
+
+    private final int[] moves;
+    private int size;
+
+    public MoveList() {
+        this.moves = new int[MAX_MOVES];
+    }
+
+    /**
+     * Appends the move to the end of the list.
+     * 
+     * @param move The packed move
+     */
+    public void add(int move) {
+        moves[size++] = move;
+    }
+
+    /**
+     * Returns the move at the specified position.
+     * 
+     * @param index The position of the move
+     * @return The packed move
+     */
+    public int get(int index) {
+        return moves[index];
+    }
+
+    /**
+     * Replaces the move at the specified position.
+     * 
+     * @param index The position of the move
+     * @param move  The packed move
+     */
+    public void set(int index, int move) {
+        moves[index] = move;
+    }
+
+    /**
+     * Returns the number of moves in the list.
+     * 
+     * @return The number of moves
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the list contains the specified move.
+     * 
+     * @param move The packed move
+     * @return True if the move is in the list else false
+     */
+    public boolean contains(int move) {
+        for (int i = 0; i < size; i++) {
+            if (moves[i] == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes all the moves from the list.
+     */
+    public void clear() {
+        size = 0;
+    }
+}
@@ -5,8 +5,6 @@ import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
-import chess.core.Board.IllegalMove;
-
 public class PGNParser {
     // Regex patterns
     private static final Pattern fullMovePattern = Pattern.compile("([0-9]+)\\.\\s(.*?)(?:\\s(.*?)(?:$|\\s)|$)");
@@ -45,7 +43,7 @@ public class PGNParser {
                 Move move1 = parseMove(board.generateMoves(), whiteMove.trim());
                 if (move1 == null)
                     break;
-                board.makeMove(move1);
+                board.makeLegalMove(move1);
 
                 String blackMove = fullMoveMatcher.group(3);
                 if (blackMove == null)
@@ -54,12 +52,9 @@ public class PGNParser {
                 Move move2 = parseMove(board.generateMoves(), blackMove.trim());
                 if (move2 == null)
                     break;
-                board.makeMove(move2);
+                board.makeLegalMove(move2);
             } catch (InvalidPGNException e) {
                 throw new InvalidPGNException(String.format("%s with move number: %d", e.getMessage(), moveCount));
-            } catch (IllegalMove e) {
-                // This exception can't occur because we are using the generated legal moves for
-                // matching
             }
 
             moveCount++;
@@ -99,7 +94,7 @@ public class PGNParser {
         PieceType type = moveMatcher.group(1).equals("") ? PieceType.Pawn
                 : PieceType.fromCharacter(moveMatcher.group(1).charAt(0));
         int col = moveMatcher.group(2).equals("") ? -1 : moveMatcher.group(2).charAt(0) - 'a';
-        Square target = new Square(moveMatcher.group(3));
+        Square target = Square.of(moveMatcher.group(3));
         PieceType promoteTo = moveMatcher.group(4).equals("") ? null
                 : PieceType.fromCharacter(moveMatcher.group(4).charAt(1));
 
@@ -112,8 +107,8 @@ public class PGNParser {
             }
             return m.to.equals(target);
         }).findFirst().orElseThrow(() -> new InvalidPGNException("Illegal move"));
-        move.setPromotionTo(promoteTo);
-        return move;
+        // The generated moves promote to a queen unless the move says otherwise
+        return promoteTo != null ? move.withPromotionTo(promoteTo) : move;
     }
 
     /**
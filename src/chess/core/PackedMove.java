@@ -0,0 +1,150 @@
+package chess.core;
+
+/**
+ * Helper methods for moves packed into an int, used by the allocation free move
+ * generation. The bits of a packed move are laid out as follows:
+ * 
+ * <pre>
+ * bits  0-5  index of the source square
+ * bits  6-11 index of the destination square
+ * bits 12-14 promotion piece type (ordinal + 1), 0 if the move is not a promotion
+ * bits 15-   flags
+ * </pre>
+ */
+public final class PackedMove {
+    public static final int NONE = 0;
+
+    public static final int FLAG_CAPTURE = 1 << 15,
+            FLAG_CASTLE = 1 << 16,
+            FLAG_DOUBLE_PUSH = 1 << 17,
+            FLAG_EN_PASSANT = 1 << 18;
+
+    private static final int SQUARE_MASK = 0x3F;
+    private static final int PROMOTION_SHIFT = 12, PROMOTION_MASK = 0x7;
+    private static final PieceType[] pieceTypes = PieceType.values();
+
+    private PackedMove() {
+    }
+
+    /**
+     * Packs a move into an int.
+     * 
+     * @param from      The index of the source square
+     * @param to        The index of the destination square
+     * @param promotion The type of the piece to promote to, null if the move is not
+     *                  a promotion
+     * @param flags     The flags of the move
+     * @return The packed move
+     */
+    public static int of(int from, int to, PieceType promotion, int flags) {
+        int promotionBits = promotion == null ? 0 : promotion.ordinal() + 1;
+        return from | (to << 6) | (promotionBits << PROMOTION_SHIFT) | flags;
+    }
+
+    /**
+     * Packs a move that is not a promotion into an int.
+     * 
+     * @param from  The index of the source square
+     * @param to    The index of the destination square
+     * @param flags The flags of the move
+     * @return The packed move
+     */
+    public static int of(int from, int to, int flags) {
+        return from | (to << 6) | flags;
+    }
+
+    /**
+     * Returns the index of the source square of the move.
+     * 
+     * @param move The packed move
+     * @return The index of the source square
+     */
+    public static int getFrom(int move) {
+        return move & SQUARE_MASK;
+    }
+
+    /**
+     * Returns the index of the destination square of the move.
+     * 
+     * @param move The packed move
+     * @return The index of the destination square
+     */
+    public static int getTo(int move) {
+        return (move >>> 6) & SQUARE_MASK;
+    }
+
+    /**
+     * Returns the type of the piece that the move promotes to.
+     * 
+     * @param move The packed move
+     * @return The type of the piece or null if the move is not a promotion
+     */
+    public static PieceType getPromotion(int move) {
+        int bits = (move >>> PROMOTION_SHIFT) & PROMOTION_MASK;
+        return bits == 0 ? null : pieceTypes[bits - 1];
+    }
+
+    /**
+     * Checks if the move is a promotion.
+     * 
+     * @param move The packed move
+     * @return True if the move is a promotion else false
+     */
+    public static boolean isPromotion(int move) {
+        return ((move >>> PROMOTION_SHIFT) & PROMOTION_MASK) != 0;
+    }
+
+    /**
+     * Checks if the move captures a piece.
+     * 
+     * @param move The packed move
+     * @return True if the move is a capture else false
+     */
+    public static boolean isCapture(int move) {
+        return (move & FLAG_CAPTURE) != 0;
+    }
+
+    /**
+     * Checks if the move is a castling move.
+     * 
+     * @param move The packed move
+     * @return True if the move is a castling move else false
+     */
+    public static boolean isCastle(int move) {
+        return (move & FLAG_CASTLE) != 0;
+    }
+
+    /**
+     * Checks if the move is a double pawn push.
+     * 
+     * @param move The packed move
+     * @return True if the move is a double pawn push else false
+     */
+    public static boolean isDoublePush(int move) {
+        return (move & FLAG_DOUBLE_PUSH) != 0;
+    }
+
+    /**
+     * Checks if the move is an en passant capture.
+     * 
+     * @param move The packed move
+     * @return True if the move is an en passant capture else false
+     */
+    public static boolean isEnPassant(int move) {
+        return (move & FLAG_EN_PASSANT) != 0;
+    }
+
+    /**
+     * Returns the move in coordinate notation, for example e7e8q.
+     * 
+     * @param move The packed move
+     * @return The string representation of the move
+     */
+    public static String toString(int move) {
+        int from = getFrom(move), to = getTo(move);
+        String str = Square.of(from).toString()
+                + Square.of(to).toString();
+        PieceType promotion = getPromotion(move);
+        return promotion == null ? str : str + promotion.toString().toLowerCase();
+    }
+}
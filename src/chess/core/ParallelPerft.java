@@ -0,0 +1,118 @@
+package chess.core;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Runs perft on multiple threads. The tree is split into fork join tasks at the
+ * first few plies and every task counts its subtree on its own copy of the
+ * board, so the threads never share mutable state and the counts are the same as the ones of
+ * {@link Perft}.
+ */
+public final class ParallelPerft {
+    // Subtrees with at most this many plies left are counted on a single thread
+    private static final int SEQUENTIAL_DEPTH = 3;
+    // The tree is only split at the first plies, deeper tasks are too small
+    private static final int MAX_SPLIT_PLY = 2;
+
+    private ParallelPerft() {
+    }
+
+    /**
+     * Counts the leaf nodes of the position using the common fork join pool. The
+     * board is only read, the tasks work on copies of it.
+     * 
+     * @param board The board to count the positions on
+     * @param depth The number of moves to play
+     * @return The number of leaf nodes
+     */
+    public static long perft(Board board, int depth) {
+        return perft(board, depth, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Counts the leaf nodes of the position using the specified pool.
+     * 
+     * @param board The board to count the positions on
+     * @param depth The number of moves to play
+     * @param pool  The pool to run the tasks on
+     * @return The number of leaf nodes
+     */
+    public static long perft(Board board, int depth, ForkJoinPool pool) {
+        return pool.invoke(new PerftTask(board.copy(), 0, depth));
+    }
+
+    /**
+     * Counts the leaf nodes under every legal move of the position separately,
+     * the root moves are counted in parallel.
+     * 
+     * @param board The board to count the positions on
+     * @param depth The number of moves to play, including the root move
+     * @param pool  The pool to run the tasks on
+     * @return The node counts keyed by the moves in coordinate notation, in the
+     *         order the moves were generated
+     */
+    public static Map<String, Long> divide(Board board, int depth, ForkJoinPool pool) {
+        Board root = board.copy();
+        MoveList moves = new MoveList();
+        root.generateMoves(moves);
+
+        List<PerftTask> tasks = new ArrayList<>(moves.size());
+        for (int i = 0; i < moves.size(); i++) {
+            root.makeLegalMove(moves.get(i));
+            tasks.add(new PerftTask(root.copy(), 1, depth - 1));
+            root.undoMove();
+        }
+        for (PerftTask task : tasks) {
+            pool.execute(task);
+        }
+
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (int i = 0; i < moves.size(); i++) {
+            counts.put(PackedMove.toString(moves.get(i)), tasks.get(i).join());
+        }
+        return counts;
+    }
+
+    /**
+     * Counts the subtree of the position of a board that is owned by the task.
+     */
+    private static final class PerftTask extends RecursiveTask<Long> {
+        private final Board board;
+        private final int ply;
+        private final int depth;
+
+        PerftTask(Board board, int ply, int depth) {
+            this.board = board;
+            this.ply = ply;
+            this.depth = depth;
+        }
+
+        @Override
+        protected Long compute() {
+            if (depth <= SEQUENTIAL_DEPTH || ply >= MAX_SPLIT_PLY) {
+                return Perft.perft(board, depth);
+            }
+
+            MoveList moves = new MoveList();
+            board.generateMoves(moves);
+            List<PerftTask> tasks = new ArrayList<>(moves.size());
+            for (int i = 0; i < moves.size(); i++) {
+                board.makeLegalMove(moves.get(i));
+                tasks.add(new PerftTask(board.copy(), ply + 1, depth - 1));
+                board.undoMove();
+            }
+            invokeAll(tasks);
+
+            long nodes = 0;
+            for (PerftTask task : tasks) {
+                nodes += task.join();
+            }
+            return nodes;
+        }
+    }
+}
@@ -4,52 +4,54 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class Pawn extends Piece {
-    public Pawn(Board board, PieceColor color) {
-        super(board, color);
+    // Instances are shared, use Piece.of to get one
+    Pawn(PieceColor color) {
+        super(PieceType.Pawn, color);
     }
 
     @Override
-    public List<Move> generateMoves() {
+    public List<Move> generateMoves(Board board, Square origin) {
         List<Move> moves = new ArrayList<Move>();
         // check if the piece is the color to move
         if (board.activeColor != color) {
             return moves;
         }
 
-        Square origin = board.findPiece(this);
-        // check if the piece is on the board
-        if (origin == null) {
+        // check if the piece is on the square
+        if (board.getPiece(origin) != this) {
             return moves;
         }
 
         int forwardDir = this.color == PieceColor.WHITE ? -1 : 1;
 
         // Check for pawn push
-        Square push = new Square(origin.rank + forwardDir, origin.file);
-        if (board.isLegalSquare(push) && board.getPiece(push) == null) {
-            moves.add(new Move(origin, push));
+        int originIndex = Bitboard.squareIndex(origin);
+        int pushIndex = originIndex + forwardDir * Board.WIDTH;
+        if (0 <= pushIndex && pushIndex < Board.WIDTH * Board.HEIGHT
+                && (board.getOccupancy() & Bitboard.bit(pushIndex)) == 0) {
+            moves.add(new Move(origin, Square.of(pushIndex)));
 
             // Check for double pawn push
             int initalRank = this.color == PieceColor.WHITE ? Board.HEIGHT - 2 : 1;
-            Square doublePush = new Square(origin.rank + 2 * forwardDir, origin.file);
-            if (initalRank == origin.rank && board.getPiece(doublePush) == null) {
-                moves.add(new Move(origin, doublePush));
+            int doublePushIndex = pushIndex + forwardDir * Board.WIDTH;
+            if (initalRank == origin.rank && (board.getOccupancy() & Bitboard.bit(doublePushIndex)) == 0) {
+                moves.add(new Move(origin, Square.of(doublePushIndex)));
             }
         }
 
         // Check for pawn captures
-        Square leftCapture = new Square(origin.rank + forwardDir, push.file + 1),
-                rightCapture = new Square(origin.rank + forwardDir, push.file - 1);
-        if (containsOpponentPiece(leftCapture)) {
-            moves.add(new Move(origin, leftCapture));
-        }
-        if (containsOpponentPiece(rightCapture)) {
-            moves.add(new Move(origin, rightCapture));
+        long captures = Attacks.pawn(color, originIndex) & board.getOccupancy(color.getInverse());
+        addMoves(moves, origin, captures);
+
+        // Check for en passant capture
+        Square enPassant = board.getEnPassantSquare();
+        if (enPassant != null && (Attacks.pawn(color, originIndex) & Bitboard.bit(enPassant.getIndex())) != 0) {
+            moves.add(new Move(origin, enPassant));
         }
         return moves;
     }
 
-    public boolean containsOpponentPiece(Square square) {
+    public boolean containsOpponentPiece(Board board, Square square) {
         if (board.isLegalSquare(square)) {
             Piece p = board.getPiece(square);
             if (p != null && p.getColor() != color) {
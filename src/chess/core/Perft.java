@@ -0,0 +1,158 @@
+package chess.core;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Counts the leaf nodes of the legal move tree up to a fixed depth. Comparing
+ * the counts with known values is the standard way to check the correctness of
+ * a move generator, and timing it shows how fast the generator is.
+ */
+public final class Perft {
+    /**
+     * Well known positions with their verified node counts, these cover
+     * castling, en passant, promotions and discovered checks.
+     */
+    public static final List<ReferencePosition> REFERENCE_POSITIONS = List.of(
+            new ReferencePosition("Start position",
+                    "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+                    20, 400, 8902, 197281, 4865609, 119060324),
+            new ReferencePosition("Kiwipete",
+                    "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+                    48, 2039, 97862, 4085603, 193690690),
+            new ReferencePosition("Position 3",
+                    "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+                    14, 191, 2812, 43238, 674624, 11030083),
+            new ReferencePosition("Position 4",
+                    "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+                    6, 264, 9467, 422333, 15833292),
+            new ReferencePosition("Position 5",
+                    "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+                    44, 1486, 62379, 2103487, 89941194),
+            new ReferencePosition("Position 6",
+                    "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+                    46, 2079, 89890, 3894594, 164075551));
+
+    private Perft() {
+    }
+
+    /**
+     * Counts the positions that can be reached from the current position of the
+     * board with exactly the specified number of moves. The board is left in the
+     * same state as it was before the call.
+     * 
+     * @param board The board to count the positions on
+     * @param depth The number of moves to play
+     * @return The number of leaf nodes
+     */
+    public static long perft(Board board, int depth) {
+        if (depth <= 0) {
+            return 1;
+        }
+
+        MoveList[] moveLists = new MoveList[depth + 1];
+        for (int i = 0; i < moveLists.length; i++) {
+            moveLists[i] = new MoveList();
+        }
+        return perft(board, depth, moveLists);
+    }
+
+    /**
+     * Counts the leaf nodes under every legal move of the current position
+     * separately, this makes it possible to find the move where the counts
+     * differ from a reference generator.
+     * 
+     * @param board The board to count the positions on
+     * @param depth The number of moves to play, including the root move
+     * @return The node counts keyed by the moves in coordinate notation, in the
+     *         order the moves were generated
+     */
+    public static Map<String, Long> divide(Board board, int depth) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        MoveList moves = new MoveList();
+        board.generateMoves(moves);
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            board.makeLegalMove(move);
+            counts.put(PackedMove.toString(move), perft(board, depth - 1));
+            board.undoMove();
+        }
+        return counts;
+    }
+
+    /**
+     * Calculates the speed of a count or a search. The division is done in
+     * floating point, so it doesn't overflow for any number of nodes.
+     * 
+     * @param nodes        The number of nodes visited
+     * @param elapsedNanos The time it took in nanoseconds
+     * @return The number of nodes per second, 0 if no time has elapsed
+     */
+    public static long nodesPerSecond(long nodes, long elapsedNanos) {
+        return elapsedNanos <= 0 ? 0 : (long) (nodes / (elapsedNanos / 1e9));
+    }
+
+    private static long perft(Board board, int depth, MoveList[] moveLists) {
+        MoveList moves = moveLists[depth];
+        board.generateMoves(moves);
+        if (depth == 1) {
+            return moves.size();
+        }
+
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            board.makeLegalMove(moves.get(i));
+            nodes += perft(board, depth - 1, moveLists);
+            board.undoMove();
+        }
+        return nodes;
+    }
+
+    /**
+     * A position with its known perft results.
+     */
+    public static final class ReferencePosition {
+        private final String name;
+        private final String fen;
+        private final long[] nodes;
+
+        /**
+         * Creates a reference position.
+         * 
+         * @param name  The name to display for the position
+         * @param fen   The position in FEN notation
+         * @param nodes The node counts, starting at depth 1
+         */
+        public ReferencePosition(String name, String fen, long... nodes) {
+            this.name = name;
+            this.fen = fen;
+            this.nodes = nodes.clone();
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getFEN() {
+            return fen;
+        }
+
+        /**
+         * @return The deepest depth that has a known node count
+         */
+        public int getMaxDepth() {
+            return nodes.length;
+        }
+
+        /**
+         * Returns the known node count at the specified depth.
+         * 
+         * @param depth The depth, between 1 and {@link #getMaxDepth()}
+         * @return The number of leaf nodes at the depth
+         */
+        public long getNodes(int depth) {
+            return nodes[depth - 1];
+        }
+    }
+}
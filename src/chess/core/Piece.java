@@ -2,28 +2,69 @@ package chess.core;
 
 import java.util.List;
 
+/**
+ * A kind of piece, like the white knight. Pieces hold no state besides their
+ * color, there is one shared instance for each of the twelve kinds (see
+ * {@link #of(PieceType, PieceColor)}) and the board and square are passed to
+ * the methods that need them.
+ */
 public abstract class Piece {
-    protected Board board;
-    protected PieceColor color;
+    // The shared instances indexed the same way as the bitboards of the board
+    private static final Piece[] instances = new Piece[PieceColor.values().length * PieceType.values().length];
+
+    static {
+        for (PieceColor color : PieceColor.values()) {
+            for (Piece piece : new Piece[] { new King(color), new Queen(color), new Rook(color),
+                    new Bishop(color), new Knight(color), new Pawn(color) }) {
+                instances[piece.index] = piece;
+            }
+        }
+    }
+
+    protected final PieceColor color;
+    // The index of the bitboard of this kind of piece on the board
+    final int index;
 
     /**
-     * Constructor for the piece, you have to provide the board that the piece is
-     * standing on and the color of the piece.
+     * Constructor for the piece, only used to create the shared instances.
      * 
-     * @param board The board on which the piece is standing on
+     * @param type  The type of the piece
      * @param color The color of the piece
      */
-    public Piece(Board board, PieceColor color) {
-        this.board = board;
+    protected Piece(PieceType type, PieceColor color) {
         this.color = color;
+        this.index = Board.bitboardIndex(type, color);
     }
 
     /**
-     * Returns a list of all of the available pseudo legal moves of the piece.
+     * Returns the shared instance of the specified kind of piece.
      * 
-     * @return List of all of the pseudo legal moves
+     * @param type  The type of the piece
+     * @param color The color of the piece
+     * @return The piece
      */
-    public abstract List<Move> generateMoves();
+    public static Piece of(PieceType type, PieceColor color) {
+        return instances[Board.bitboardIndex(type, color)];
+    }
+
+    /**
+     * Returns the shared instance of the kind of piece with the specified
+     * bitboard index.
+     */
+    static Piece of(int index) {
+        return instances[index];
+    }
+
+    /**
+     * Returns a list of all of the available pseudo legal moves of the piece
+     * standing on the specified square of the board.
+     * 
+     * @param board  The board on which the piece is standing on
+     * @param origin The square of the piece
+     * @return List of all of the pseudo legal moves, empty if the piece is not on
+     *         the square or it is not its turn
+     */
+    public abstract List<Move> generateMoves(Board board, Square origin);
 
     /**
      * Returns the type of the piece.
@@ -44,32 +85,44 @@ public abstract class Piece {
     /**
      * Checks if the specified move can be made for the piece
      * 
-     * @param move The move to check
+     * @param board The board on which the piece is standing on
+     * @param move  The move to check
      * @return True if the move can be made else false
      */
-    public boolean canMakeMove(Move move) {
-        Square square = this.board.findPiece(this);
-        if (!move.from.equals(square)) {
-            return false;
-        }
-        List<Move> moves = this.generateMoves();
+    public boolean canMakeMove(Board board, Move move) {
+        List<Move> moves = this.generateMoves(board, move.from);
         return moves.contains(move);
     }
 
     /**
-     * Checks if the piece is attacking the specified square (attacking = able to
-     * move there)
+     * Checks if the piece is attacking the specified square (attacking = could
+     * capture an enemy piece there), it doesn't matter whose turn it is.
      * 
+     * @param board  The board on which the piece is standing on
+     * @param origin The square of the piece
      * @param square The square to check
      * @return True if the piece is attacking the square else false
      */
-    public boolean isAttacking(Square square) {
-        for (Move possibleMove : this.generateMoves()) {
-            if (possibleMove.to.equals(square)) {
-                return true;
-            }
+    public boolean isAttacking(Board board, Square origin, Square square) {
+        if (board.getPiece(origin) != this) {
+            return false;
+        }
+        return (board.attacksFrom(origin) & Bitboard.bit(Bitboard.squareIndex(square))) != 0;
+    }
+
+    /**
+     * Adds a move from the origin to every square of the targets bitboard.
+     * 
+     * @param moves   The list to add the moves to
+     * @param origin  The square the piece is moving from
+     * @param targets Bitboard of the destination squares
+     */
+    protected static void addMoves(List<Move> moves, Square origin, long targets) {
+        while (targets != 0) {
+            int index = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            moves.add(new Move(origin, Square.of(index)));
         }
-        return false;
     }
 
     @Override
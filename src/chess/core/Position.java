@@ -0,0 +1,158 @@
+package chess.core;
+
+import java.util.Arrays;
+
+/**
+ * An immutable snapshot of a position: the pieces, the active color, the
+ * castling rights and the en passant square. It has no move history and holds
+ * no reference to a board, so it can be handed to other threads without
+ * synchronization and turned back into a board with {@link #toBoard()}.
+ */
+public final class Position {
+    private final long[] pieceBitboards;
+    private final PieceColor activeColor;
+    private final byte castlingRights;
+    // -1 if there is no en passant square
+    private final int enPassantSquare;
+    private final long positionKey;
+
+    Position(long[] pieceBitboards, PieceColor activeColor, byte castlingRights, int enPassantSquare,
+            long positionKey) {
+        this.pieceBitboards = pieceBitboards.clone();
+        this.activeColor = activeColor;
+        this.castlingRights = castlingRights;
+        this.enPassantSquare = enPassantSquare;
+        this.positionKey = positionKey;
+    }
+
+    /**
+     * Creates a new board with this position.
+     * 
+     * @return The board with no move history
+     */
+    public Board toBoard() {
+        return new Board(this);
+    }
+
+    /**
+     * Returns the bitboard of the pieces with the specified type and color.
+     * 
+     * @param type  The type of the pieces
+     * @param color The color of the pieces
+     * @return Bitboard where bit i is set if such a piece is on the square with
+     *         index i
+     */
+    public long getBitboard(PieceType type, PieceColor color) {
+        return pieceBitboards[Board.bitboardIndex(type, color)];
+    }
+
+    /**
+     * Returns the type of the piece on the square.
+     * 
+     * @param square The square to check
+     * @return The type of the piece or null if the square is empty
+     */
+    public PieceType getPieceType(Square square) {
+        long bit = Bitboard.bit(square.getIndex());
+        for (PieceColor color : PieceColor.values()) {
+            for (PieceType type : PieceType.values()) {
+                if ((getBitboard(type, color) & bit) != 0) {
+                    return type;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the color of the piece on the square.
+     * 
+     * @param square The square to check
+     * @return The color of the piece or null if the square is empty
+     */
+    public PieceColor getPieceColor(Square square) {
+        long bit = Bitboard.bit(square.getIndex());
+        for (PieceColor color : PieceColor.values()) {
+            for (PieceType type : PieceType.values()) {
+                if ((getBitboard(type, color) & bit) != 0) {
+                    return color;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return The color of the player who moves next
+     */
+    public PieceColor getActiveColor() {
+        return activeColor;
+    }
+
+    /**
+     * Checks if the specified color may still castle on the king side.
+     * 
+     * @param color The color of the player
+     * @return True if the king and the king side rook haven't moved else false
+     */
+    public boolean canCastleKingside(PieceColor color) {
+        return Board.hasCastlingRight(castlingRights, color, true);
+    }
+
+    /**
+     * Checks if the specified color may still castle on the queen side.
+     * 
+     * @param color The color of the player
+     * @return True if the king and the queen side rook haven't moved else false
+     */
+    public boolean canCastleQueenside(PieceColor color) {
+        return Board.hasCastlingRight(castlingRights, color, false);
+    }
+
+    /**
+     * @return The castling rights as the bit flags used by the board
+     */
+    byte getCastlingRights() {
+        return castlingRights;
+    }
+
+    /**
+     * @return The square that can be captured en passant or null if there is none
+     */
+    public Square getEnPassantSquare() {
+        return enPassantSquare == -1 ? null : Square.of(enPassantSquare);
+    }
+
+    /**
+     * @return The index of the en passant square or -1 if there is none
+     */
+    int getEnPassantIndex() {
+        return enPassantSquare;
+    }
+
+    /**
+     * @return The Zobrist key of the position, the same as the key of the board
+     */
+    public long getPositionKey() {
+        return positionKey;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(positionKey);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof Position)) {
+            return false;
+        }
+        Position other = (Position) obj;
+        return positionKey == other.positionKey && Arrays.equals(pieceBitboards, other.pieceBitboards)
+                && activeColor == other.activeColor && castlingRights == other.castlingRights
+                && enPassantSquare == other.enPassantSquare;
+    }
+}
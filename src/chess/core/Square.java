@@ -1,12 +1,25 @@
 package chess.core;
 
 public class Square {
-    private static final Square[] cornerSquares = new Square[] {
-            new Square(0, 0), // Top left corner
-            new Square(0, Board.WIDTH - 1), // Top right corner
-            new Square(Board.HEIGHT - 1, 0), // Bottom left corner
-            new Square(Board.HEIGHT - 1, Board.WIDTH - 1) // Bottom right corner
-    };
+    private static final int SQUARES = Board.WIDTH * Board.HEIGHT;
+
+    // The canonical instance of every square of the board indexed by
+    // rank * Board.WIDTH + file
+    private static final Square[] squares = new Square[SQUARES];
+    static {
+        for (int i = 0; i < SQUARES; i++) {
+            squares[i] = new Square(i / Board.WIDTH, i % Board.WIDTH);
+        }
+    }
+
+    private static final int topLeft = 0,
+            topRight = Board.WIDTH - 1,
+            bottomLeft = (Board.HEIGHT - 1) * Board.WIDTH,
+            bottomRight = SQUARES - 1;
+    private static final long cornerSquares = Bitboard.bit(topLeft) | Bitboard.bit(topRight)
+            | Bitboard.bit(bottomLeft) | Bitboard.bit(bottomRight);
+    // a8 is a white square and the colors alternate along every row
+    private static final long whiteSquares = 0xAA55AA55AA55AA55L;
 
     /**
      * The row on a chess board
@@ -18,27 +31,64 @@ public class Square {
      */
     public final int file;
 
+    /**
+     * Creates a square that is not shared, prefer {@link #of(int, int)} which
+     * returns the canonical instance. This constructor can also describe squares
+     * that are outside the board.
+     * 
+     * @param rank The row of the square
+     * @param file The column of the square
+     */
     public Square(int rank, int file) {
         this.rank = rank;
         this.file = file;
     }
 
+    /**
+     * Creates a square from its name (for example e4) that is not shared, prefer
+     * {@link #of(String)} which returns the canonical instance.
+     * 
+     * @param square The name of the square
+     */
     public Square(String square) {
-        square = square.trim();
-        if (square.length() != 2) {
-            throw new IllegalArgumentException("Illegal square: " + square);
-        }
+        this(parseIndex(square) / Board.WIDTH, parseIndex(square) % Board.WIDTH);
+    }
 
-        int rank = Board.HEIGHT - (square.charAt(1) - '0');
-        int file = Character.toLowerCase(square.charAt(0)) - 'a';
-        if (rank < 0 || Board.HEIGHT <= rank) {
-            throw new IllegalArgumentException("Illegal rank in square: " + square.charAt(1));
-        }
-        if (file < 0 || Board.WIDTH <= file) {
-            throw new IllegalArgumentException("Illegal file in square: " + square.charAt(0));
+    /**
+     * Returns the canonical instance of the square with the specified row and
+     * column.
+     * 
+     * @param rank The row of the square
+     * @param file The column of the square
+     * @return The square
+     * @throws IllegalArgumentException If the square is outside the board
+     */
+    public static Square of(int rank, int file) {
+        if (rank < 0 || Board.HEIGHT <= rank || file < 0 || Board.WIDTH <= file) {
+            throw new IllegalArgumentException("Square outside the board: " + rank + ", " + file);
         }
-        this.rank = rank;
-        this.file = file;
+        return squares[rank * Board.WIDTH + file];
+    }
+
+    /**
+     * Returns the canonical instance of the square with the specified index.
+     * 
+     * @param index The index of the square (rank * Board.WIDTH + file)
+     * @return The square
+     */
+    public static Square of(int index) {
+        return squares[index];
+    }
+
+    /**
+     * Returns the canonical instance of the square with the specified name.
+     * 
+     * @param square The name of the square, for example e4
+     * @return The square
+     * @throws IllegalArgumentException If the name is not a valid square
+     */
+    public static Square of(String square) {
+        return squares[parseIndex(square)];
     }
 
     /**
@@ -59,18 +109,22 @@ public class Square {
         return file;
     }
 
+    /**
+     * Returns the index of the square, which is its bit in a bitboard.
+     * 
+     * @return The index of the square (rank * Board.WIDTH + file)
+     */
+    public int getIndex() {
+        return rank * Board.WIDTH + file;
+    }
+
     /**
      * Checks if the square is one of the four corners.
      * 
      * @return True if the square is a corner square
      */
     public boolean isCorner() {
-        for (Square corner : cornerSquares) {
-            if (this.equals(corner)) {
-                return true;
-            }
-        }
-        return false;
+        return isOnBoard() && (cornerSquares & Bitboard.bit(getIndex())) != 0;
     }
 
     /**
@@ -79,7 +133,7 @@ public class Square {
      * @return True if the square is in the top left corner else false
      */
     public boolean isTopLeft() {
-        return this.equals(cornerSquares[0]);
+        return isOnBoard() && getIndex() == topLeft;
     }
 
     /**
@@ -88,7 +142,7 @@ public class Square {
      * @return True if the square is in the top right corner else false
      */
     public boolean isTopRight() {
-        return this.equals(cornerSquares[1]);
+        return isOnBoard() && getIndex() == topRight;
     }
 
     /**
@@ -97,7 +151,7 @@ public class Square {
      * @return True if the square is in the bottom left corner else false
      */
     public boolean isBottomLeft() {
-        return this.equals(cornerSquares[2]);
+        return isOnBoard() && getIndex() == bottomLeft;
     }
 
     /**
@@ -106,7 +160,7 @@ public class Square {
      * @return True if the square is in the bottom right corner else false
      */
     public boolean isBottomRight() {
-        return this.equals(cornerSquares[3]);
+        return isOnBoard() && getIndex() == bottomRight;
     }
 
     /**
@@ -115,15 +169,56 @@ public class Square {
      * @return If the square is white it returns true else false
      */
     public boolean isWhite() {
-        return (rank + file) % 2 == 0;
+        if (!isOnBoard()) {
+            return (rank + file) % 2 == 0;
+        }
+        return (whiteSquares & Bitboard.bit(getIndex())) != 0;
+    }
+
+    /**
+     * Checks if the square is inside the board.
+     */
+    private boolean isOnBoard() {
+        return 0 <= rank && rank < Board.HEIGHT && 0 <= file && file < Board.WIDTH;
+    }
+
+    /**
+     * Parses the name of a square into its index.
+     */
+    private static int parseIndex(String square) {
+        square = square.trim();
+        if (square.length() != 2) {
+            throw new IllegalArgumentException("Illegal square: " + square);
+        }
+
+        int rank = Board.HEIGHT - (square.charAt(1) - '0');
+        int file = Character.toLowerCase(square.charAt(0)) - 'a';
+        if (rank < 0 || Board.HEIGHT <= rank) {
+            throw new IllegalArgumentException("Illegal rank in square: " + square.charAt(1));
+        }
+        if (file < 0 || Board.WIDTH <= file) {
+            throw new IllegalArgumentException("Illegal file in square: " + square.charAt(0));
+        }
+        return rank * Board.WIDTH + file;
     }
 
     @Override
     public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof Square)) {
+            return false;
+        }
         Square other = (Square) obj;
         return this.rank == other.rank && this.file == other.file;
     }
 
+    @Override
+    public int hashCode() {
+        return rank * Board.WIDTH + file;
+    }
+
     @Override
     public String toString() {
         return String.format("%c%c", (char) this.file + 'a', (char) Board.HEIGHT - this.rank + '0');
@@ -0,0 +1,54 @@
+package chess.core;
+
+import java.util.SplittableRandom;
+
+/**
+ * Random keys for Zobrist hashing. The key of a position is the xor of the keys
+ * of its features, so making a move only has to xor in and out the features
+ * that changed.
+ */
+final class Zobrist {
+    // Fixed seed so the keys are the same on every run
+    private static final long SEED = 0x5DEECE66DL;
+
+    /**
+     * Key of a piece standing on a square, indexed by the bitboard index of the
+     * piece and the index of the square.
+     */
+    static final long[][] pieceKeys = new long[2 * PieceType.values().length][Board.WIDTH * Board.HEIGHT];
+
+    /**
+     * Key that is present when black is to move.
+     */
+    static final long blackToMoveKey;
+
+    /**
+     * Key of every combination of the castling rights.
+     */
+    static final long[] castlingKeys = new long[16];
+
+    /**
+     * Key of the file of the en passant square, present only if the en passant
+     * capture is possible.
+     */
+    static final long[] enPassantKeys = new long[Board.WIDTH];
+
+    static {
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (long[] keys : pieceKeys) {
+            for (int sq = 0; sq < keys.length; sq++) {
+                keys[sq] = random.nextLong();
+            }
+        }
+        blackToMoveKey = random.nextLong();
+        for (int i = 1; i < castlingKeys.length; i++) {
+            castlingKeys[i] = random.nextLong();
+        }
+        for (int i = 0; i < enPassantKeys.length; i++) {
+            enPassantKeys[i] = random.nextLong();
+        }
+    }
+
+    private Zobrist() {
+    }
+}
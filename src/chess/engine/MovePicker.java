@@ -0,0 +1,287 @@
+package chess.engine;
+
+import chess.core.Board;
+import chess.core.MoveList;
+import chess.core.PackedMove;
+import chess.core.Piece;
+import chess.core.PieceType;
+
+/**
+ * Hands out the legal moves of a position one by one in the order they are
+ * most likely to cause a cutoff, and generates them in stages so a cutoff
+ * early on saves the rest of the generation:
+ * 
+ * <ol>
+ * <li>the hash move, the best move found by an earlier search</li>
+ * <li>captures and promotions, the most valuable victim first and then the
+ * least valuable attacker (MVV-LVA), except the captures that lose material by
+ * static exchange evaluation</li>
+ * <li>the killer moves, quiet moves that caused a cutoff at the same ply</li>
+ * <li>the rest of the quiet moves by their history score</li>
+ * <li>the captures that lose material</li>
+ * </ol>
+ * 
+ * Every move is checked against the generated list of its kind before it is
+ * returned, so a hash move or killer move of another position is never played.
+ * A picker is reused for every node of the same ply, nothing is allocated while
+ * picking.
+ */
+public final class MovePicker {
+    /**
+     * The number of entries of the history table of a color.
+     */
+    public static final int HISTORY_SIZE = Board.WIDTH * Board.HEIGHT * Board.WIDTH * Board.HEIGHT;
+
+    private static final int STAGE_HASH_MOVE = 0,
+            STAGE_CAPTURES = 1,
+            STAGE_KILLERS = 2,
+            STAGE_QUIETS = 3,
+            STAGE_BAD_CAPTURES = 4,
+            STAGE_DONE = 5;
+
+    // The king can't be captured, as an attacker it ranks after every other piece
+    private static final int KING_ATTACKER_VALUE = PieceType.Queen.getValue() + 1;
+    // Captures are ordered by victim first, so a victim value step must be larger
+    // than any difference of the attacker values
+    private static final int VICTIM_WEIGHT = 16;
+    // Promotions to other pieces than the queen are almost never the best move
+    private static final int UNDERPROMOTION_SCORE = -1;
+
+    private final MoveList captures = new MoveList();
+    private final MoveList quiets = new MoveList();
+    // The captures that lose material, in the order they were picked
+    private final MoveList badCaptures = new MoveList();
+    private final int[] captureScores = new int[MoveList.MAX_MOVES];
+    private final int[] quietScores = new int[MoveList.MAX_MOVES];
+
+    private Board board;
+    private int hashMove;
+    private int killer1, killer2;
+    private int[] history;
+    private boolean capturesOnly;
+
+    private int stage;
+    private int index;
+    private boolean capturesGenerated, quietsGenerated;
+
+    /**
+     * Starts picking every legal move of the position.
+     * 
+     * @param board    The board with the position
+     * @param hashMove The move to return first, {@link PackedMove#NONE} if there
+     *                 is no such move
+     * @param killer1  The first killer move of the ply or {@link PackedMove#NONE}
+     * @param killer2  The second killer move of the ply or {@link PackedMove#NONE}
+     * @param history  The history scores of the quiet moves of the active color,
+     *                 indexed by {@link #historyIndex(int)}
+     */
+    public void init(Board board, int hashMove, int killer1, int killer2, int[] history) {
+        this.board = board;
+        this.hashMove = hashMove;
+        this.killer1 = killer1;
+        this.killer2 = killer2;
+        this.history = history;
+        this.capturesOnly = false;
+        this.stage = hashMove == PackedMove.NONE ? STAGE_CAPTURES : STAGE_HASH_MOVE;
+        this.index = 0;
+        this.capturesGenerated = false;
+        this.quietsGenerated = false;
+        badCaptures.clear();
+    }
+
+    /**
+     * Starts picking only the captures and promotions of the position that don't
+     * lose material, for the quiescence search.
+     * 
+     * @param board The board with the position
+     */
+    public void initCaptures(Board board) {
+        init(board, PackedMove.NONE, PackedMove.NONE, PackedMove.NONE, null);
+        this.capturesOnly = true;
+    }
+
+    /**
+     * Returns the next move to search.
+     * 
+     * @return The packed move or {@link PackedMove#NONE} if there are no more
+     *         moves
+     */
+    @SuppressWarnings("fallthrough")
+    public int next() {
+        switch (stage) {
+            case STAGE_HASH_MOVE:
+                stage = STAGE_CAPTURES;
+                // The hash move is only valid if it is in the list of its kind
+                if (PackedMove.isCapture(hashMove) || PackedMove.isPromotion(hashMove)) {
+                    generateCaptures();
+                    if (captures.contains(hashMove)) {
+                        return hashMove;
+                    }
+                } else {
+                    generateQuiets();
+                    if (quiets.contains(hashMove)) {
+                        return hashMove;
+                    }
+                }
+                hashMove = PackedMove.NONE;
+                // Fall through to the captures
+            case STAGE_CAPTURES:
+                if (!capturesGenerated) {
+                    generateCaptures();
+                }
+                while (index < captures.size()) {
+                    int move = pickBest(captures, captureScores, index++);
+                    if (move == hashMove) {
+                        continue;
+                    }
+                    if (mayLoseMaterial(move) && board.staticExchange(move) < 0) {
+                        badCaptures.add(move);
+                        continue;
+                    }
+                    return move;
+                }
+                if (capturesOnly) {
+                    stage = STAGE_DONE;
+                    return PackedMove.NONE;
+                }
+                stage = STAGE_KILLERS;
+                index = 0;
+                if (!quietsGenerated) {
+                    generateQuiets();
+                }
+                // Fall through to the killers
+            case STAGE_KILLERS:
+                while (index < 2) {
+                    int killer = index++ == 0 ? killer1 : killer2;
+                    if (killer != PackedMove.NONE && killer != hashMove && quiets.contains(killer)) {
+                        return killer;
+                    }
+                }
+                stage = STAGE_QUIETS;
+                index = 0;
+                scoreQuiets();
+                // Fall through to the quiet moves
+            case STAGE_QUIETS:
+                while (index < quiets.size()) {
+                    int move = pickBest(quiets, quietScores, index++);
+                    if (move != hashMove && move != killer1 && move != killer2) {
+                        return move;
+                    }
+                }
+                stage = STAGE_BAD_CAPTURES;
+                index = 0;
+                // Fall through to the losing captures
+            case STAGE_BAD_CAPTURES:
+                if (index < badCaptures.size()) {
+                    return badCaptures.get(index++);
+                }
+                stage = STAGE_DONE;
+                // Fall through, there are no more moves
+            default:
+                return PackedMove.NONE;
+        }
+    }
+
+    /**
+     * Checks if the move is neither a capture nor a promotion, only these moves
+     * are killer moves and have history scores.
+     * 
+     * @param move The packed move
+     * @return True if the move is quiet else false
+     */
+    public static boolean isQuiet(int move) {
+        return !PackedMove.isCapture(move) && !PackedMove.isPromotion(move);
+    }
+
+    /**
+     * Returns the index of the move in a history table, tables have
+     * {@link #HISTORY_SIZE} entries for each color.
+     * 
+     * @param move The packed move
+     * @return The index made of the source and destination squares
+     */
+    public static int historyIndex(int move) {
+        return PackedMove.getFrom(move) * Board.WIDTH * Board.HEIGHT + PackedMove.getTo(move);
+    }
+
+    private void generateCaptures() {
+        board.generateCaptures(captures);
+        capturesGenerated = true;
+        for (int i = 0; i < captures.size(); i++) {
+            captureScores[i] = captureScore(captures.get(i));
+        }
+    }
+
+    private void generateQuiets() {
+        board.generateQuietMoves(quiets);
+        quietsGenerated = true;
+    }
+
+    private void scoreQuiets() {
+        for (int i = 0; i < quiets.size(); i++) {
+            quietScores[i] = history[historyIndex(quiets.get(i))];
+        }
+    }
+
+    /**
+     * Scores a capture or promotion by MVV-LVA with the values of
+     * {@link PieceType#getValue()}, a promotion counts as capturing the new piece.
+     */
+    private int captureScore(int move) {
+        PieceType promotion = PackedMove.getPromotion(move);
+        if (promotion != null && promotion != PieceType.Queen) {
+            return UNDERPROMOTION_SCORE;
+        }
+
+        int from = PackedMove.getFrom(move), to = PackedMove.getTo(move);
+        int victimValue = 0;
+        if (PackedMove.isCapture(move)) {
+            Piece victim = board.getPiece(to / Board.WIDTH, to % Board.WIDTH);
+            // The pawn captured en passant is not on the destination square
+            victimValue = victim == null ? PieceType.Pawn.getValue() : victim.getType().getValue();
+        }
+        if (promotion != null) {
+            victimValue += promotion.getValue();
+        }
+        PieceType attacker = board.getPiece(from / Board.WIDTH, from % Board.WIDTH).getType();
+        int attackerValue = attacker == PieceType.King ? KING_ATTACKER_VALUE : attacker.getValue();
+        return victimValue * VICTIM_WEIGHT - attackerValue;
+    }
+
+    /**
+     * Checks if the capture can lose material, a capture of a piece that is worth
+     * at least as much as the capturing piece never does. The king only captures
+     * undefended pieces.
+     */
+    private boolean mayLoseMaterial(int move) {
+        if (PackedMove.isPromotion(move) || PackedMove.isEnPassant(move)) {
+            return false;
+        }
+        int from = PackedMove.getFrom(move), to = PackedMove.getTo(move);
+        PieceType attacker = board.getPiece(from / Board.WIDTH, from % Board.WIDTH).getType();
+        PieceType victim = board.getPiece(to / Board.WIDTH, to % Board.WIDTH).getType();
+        return attacker != PieceType.King && attacker.getValue() > victim.getValue();
+    }
+
+    /**
+     * Moves the best scored of the remaining moves to the index and returns it,
+     * so the moves are only sorted as far as the search gets.
+     */
+    private static int pickBest(MoveList moves, int[] scores, int index) {
+        int best = index;
+        for (int i = index + 1; i < moves.size(); i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+        int move = moves.get(best);
+        if (best != index) {
+            moves.set(best, moves.get(index));
+            moves.set(index, move);
+            int score = scores[best];
+            scores[best] = scores[index];
+            scores[index] = score;
+        }
+        return move;
+    }
+}
@@ -0,0 +1,165 @@
+package chess.engine;
+
+import java.util.function.Consumer;
+
+import chess.core.Board;
+
+/**
+ * Searches a position on multiple threads with the lazy SMP scheme: every
+ * thread runs its own iterative deepening search on its own copy of the board
+ * and the threads only share the lock-free {@link TranspositionTable}. The
+ * threads fill the table for each other, so the main thread finds the results
+ * of the helpers and reaches the depths faster than it would alone. Half of the
+ * helpers start one iteration deeper, so they don't all search the same tree in
+ * lockstep.
+ * 
+ * The search runs on the calling thread with the limits of the search, the
+ * helpers search without limits until the main thread is done. The results
+ * only come from the main thread, but their node counts include the helpers.
+ */
+public final class ParallelSearch {
+    private final TranspositionTable table;
+    // The search of the calling thread comes first, then the helpers
+    private final Search[] searches;
+
+    /**
+     * Creates a parallel search with a table of the default size of
+     * {@link Search}.
+     * 
+     * @param threads The number of threads to search on, at least 1
+     */
+    public ParallelSearch(int threads) {
+        this(threads, new TranspositionTable(Search.DEFAULT_TABLE_MEGABYTES));
+    }
+
+    /**
+     * Creates a parallel search whose threads share the specified table.
+     * 
+     * @param threads The number of threads to search on, at least 1
+     * @param table   The transposition table to share between the threads
+     */
+    public ParallelSearch(int threads, TranspositionTable table) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("The search needs at least 1 thread");
+        }
+        this.table = table;
+        this.searches = new Search[threads];
+        for (int i = 0; i < threads; i++) {
+            searches[i] = new Search(table);
+        }
+    }
+
+    /**
+     * Searches the position until one of the limits is reached. The board is not
+     * changed, every thread searches on a copy of it.
+     * 
+     * @param board  The board with the position to search
+     * @param limits The limits of the search, the node limit only counts the nodes
+     *               of the calling thread
+     * @return The result of the deepest completed iteration
+     */
+    public SearchResult search(Board board, SearchLimits limits) {
+        return search(board, limits, null);
+    }
+
+    /**
+     * Searches the position until one of the limits is reached and reports every
+     * completed iteration of the calling thread.
+     * 
+     * @param board    The board with the position to search
+     * @param limits   The limits of the search, the node limit only counts the
+     *                 nodes of the calling thread
+     * @param listener Called with the result after every completed iteration, can
+     *                 be null
+     * @return The result of the deepest completed iteration
+     */
+    public SearchResult search(Board board, SearchLimits limits, Consumer<SearchResult> listener) {
+        long startTime = System.nanoTime();
+        table.newSearch();
+        for (Search search : searches) {
+            search.resetStop();
+        }
+
+        Thread[] helpers = new Thread[searches.length - 1];
+        for (int i = 0; i < helpers.length; i++) {
+            Search helper = searches[i + 1];
+            Board copy = board.copy();
+            int firstDepth = 1 + (i & 1);
+            helpers[i] = new Thread(() -> helper.iterate(copy, SearchLimits.NONE, null, firstDepth),
+                    "search-helper-" + (i + 1));
+            helpers[i].setDaemon(true);
+            helpers[i].start();
+        }
+
+        SearchResult result;
+        try {
+            result = searches[0].iterate(board.copy(), limits,
+                    listener == null ? null : iteration -> listener.accept(withHelperNodes(iteration)), 1);
+        } finally {
+            stop();
+            for (Thread helper : helpers) {
+                joinUninterruptibly(helper);
+            }
+        }
+        // Every thread has finished, so the counts and the time are taken at the
+        // same moment
+        return result.withEffort(threadNodes(result), System.nanoTime() - startTime);
+    }
+
+    /**
+     * Stops every thread of the search, the search returns the result of the
+     * last completed iteration. Can be called from any thread.
+     */
+    public void stop() {
+        for (Search search : searches) {
+            search.stop();
+        }
+    }
+
+    /**
+     * @return The number of threads the search runs on
+     */
+    public int getThreadCount() {
+        return searches.length;
+    }
+
+    public TranspositionTable getTable() {
+        return table;
+    }
+
+    /**
+     * Adds the node counts of the helpers to an iteration of the main thread.
+     */
+    private SearchResult withHelperNodes(SearchResult result) {
+        return result.withEffort(threadNodes(result), result.getElapsedNanos());
+    }
+
+    /**
+     * Returns the node counts of every thread. The result holds the exact count of
+     * the main thread, the helpers report theirs with a small delay while they
+     * run.
+     */
+    private long[] threadNodes(SearchResult result) {
+        long[] threadNodes = new long[searches.length];
+        threadNodes[0] = result.getThreadNodes(0);
+        for (int i = 1; i < searches.length; i++) {
+            threadNodes[i] = searches[i].getReportedNodes();
+        }
+        return threadNodes;
+    }
+
+    private static void joinUninterruptibly(Thread thread) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                thread.join();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,458 @@
+package chess.engine;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+import chess.core.Board;
+import chess.core.PackedMove;
+
+/**
+ * Chooses a move with a negamax alpha-beta search driven by iterative
+ * deepening. Every iteration searches one ply deeper than the previous one and
+ * starts with the best move found so far, the search stops when a limit is
+ * reached and the result of the last completed iteration is returned. The
+ * leaves are resolved by a quiescence search over the captures, so the static
+ * evaluation is never taken in the middle of an exchange. The results are cached
+ * in a transposition table, which gives the best move to search first and cuts
+ * off positions that were already searched deep enough. The moves are ordered
+ * by a {@link MovePicker} with the killer moves and history scores gathered
+ * during the search.
+ * 
+ * A search object is not thread safe, but it can be reused for more searches.
+ */
+public class Search {
+    /**
+     * The deepest iteration that can be searched.
+     */
+    public static final int MAX_DEPTH = 64;
+
+    /**
+     * The deepest ply the search can reach, including the quiescence search.
+     */
+    public static final int MAX_PLY = 128;
+
+    /**
+     * The score of being mated at the root, a mate in n plies is scored
+     * MATE_SCORE - n.
+     */
+    public static final int MATE_SCORE = 30000;
+
+    /**
+     * Scores above this in absolute value are mate scores.
+     */
+    public static final int MATE_BOUND = MATE_SCORE - MAX_PLY;
+
+    private static final int INFINITY = MATE_SCORE + 1;
+    private static final int DRAW_SCORE = 0;
+    private static final int MAX_HISTORY = 1 << 20;
+    // The clock is only read once in this many nodes, reading it costs more than
+    // searching a node
+    private static final int TIME_CHECK_INTERVAL = 2048;
+    static final int DEFAULT_TABLE_MEGABYTES = 16;
+
+    private final TranspositionTable table;
+
+    private final MovePicker[] pickers = new MovePicker[MAX_PLY];
+    // Triangular table of principal variations, row ply holds the best line found
+    // from that ply which ends before pvLengths[ply]
+    private final int[][] pvTable = new int[MAX_PLY][MAX_PLY];
+    private final int[] pvLengths = new int[MAX_PLY];
+    // The last two quiet moves that caused a cutoff at every ply
+    private final int[][] killers = new int[MAX_PLY][2];
+    // How often the quiet moves of each color caused a cutoff, weighted by the
+    // remaining depth, indexed by MovePicker.historyIndex
+    private final int[][] history = new int[2][MovePicker.HISTORY_SIZE];
+
+    private Board board;
+    private SearchLimits limits;
+    private long startTime;
+    private long nodes;
+    // The node count published for other threads, updated when the clock is read
+    private volatile long reportedNodes;
+    private volatile boolean stopped;
+    // The iteration of depth 1 runs to the end whatever the limits are, so the
+    // search always has a real move and score to return
+    private boolean finishIteration;
+
+    /**
+     * Creates a search with its own transposition table of the default size.
+     */
+    public Search() {
+        this(new TranspositionTable(DEFAULT_TABLE_MEGABYTES));
+    }
+
+    /**
+     * Creates a search that caches its results in the table, the table can be
+     * shared with other searches.
+     * 
+     * @param table The transposition table to use
+     */
+    public Search(TranspositionTable table) {
+        this.table = table;
+        for (int i = 0; i < pickers.length; i++) {
+            pickers[i] = new MovePicker();
+        }
+    }
+
+    /**
+     * Searches the position of the board within the limits. The board is not
+     * changed, the search works on a copy of it. The iteration of depth 1 is
+     * always finished, even if it goes beyond the limits or the search is stopped.
+     * 
+     * @param board  The board with the position to search
+     * @param limits The limits of the search
+     * @return The result of the last completed iteration
+     */
+    public SearchResult search(Board board, SearchLimits limits) {
+        return search(board, limits, null);
+    }
+
+    /**
+     * Searches the position of the board within the limits and reports the result
+     * of every completed iteration.
+     * 
+     * @param board    The board with the position to search
+     * @param limits   The limits of the search
+     * @param listener Called with the result after every completed iteration, can
+     *                 be null
+     * @return The result of the last completed iteration
+     */
+    public SearchResult search(Board board, SearchLimits limits, Consumer<SearchResult> listener) {
+        stopped = false;
+        table.newSearch();
+        return iterate(board.copy(), limits, listener, 1);
+    }
+
+    /**
+     * Runs the iterative deepening on the board, the caller is responsible for
+     * resetting the stop flag and for starting a new search in the table.
+     * 
+     * @param board      The board to search on, it is owned by the search
+     * @param limits     The limits of the search
+     * @param listener   Called with the result after every completed iteration,
+     *                   can be null
+     * @param firstDepth The depth of the first iteration
+     * @return The result of the last completed iteration with the nodes and the
+     *         time of the whole search, null if the first iteration was stopped
+     *         and it was deeper than 1
+     */
+    SearchResult iterate(Board board, SearchLimits limits, Consumer<SearchResult> listener, int firstDepth) {
+        this.board = board;
+        this.limits = limits;
+        this.startTime = System.nanoTime();
+        this.nodes = 0;
+        this.reportedNodes = 0;
+        for (int[] plyKillers : killers) {
+            Arrays.fill(plyKillers, PackedMove.NONE);
+        }
+        for (int[] colorHistory : history) {
+            Arrays.fill(colorHistory, 0);
+        }
+
+        int[] bestLine = new int[0];
+        SearchResult result = null;
+        for (int depth = firstDepth; depth <= limits.getDepth(); depth++) {
+            finishIteration = depth == 1;
+            int score = searchRoot(depth, bestLine.length == 0 ? PackedMove.NONE : bestLine[0]);
+            if (isAborted()) {
+                break;
+            }
+
+            bestLine = new int[pvLengths[0]];
+            System.arraycopy(pvTable[0], 0, bestLine, 0, bestLine.length);
+            result = new SearchResult(depth, score, bestLine, new long[] { nodes }, System.nanoTime() - startTime);
+            if (listener != null) {
+                listener.accept(result);
+            }
+            // Nothing changes by searching deeper
+            if (bestLine.length == 0 || Math.abs(score) > MATE_BOUND && MATE_SCORE - Math.abs(score) <= depth) {
+                break;
+            }
+            // The limits were reached while the iteration of depth 1 was finished
+            if (stopped) {
+                break;
+            }
+            // The next iteration takes longer than all the previous ones, it
+            // wouldn't finish in the remaining time
+            if (limits.getTimeMillis() != Long.MAX_VALUE
+                    && 2 * result.getElapsedNanos() >= limits.getTimeMillis() * 1_000_000L) {
+                break;
+            }
+        }
+        this.board = null;
+        reportedNodes = nodes;
+        // The aborted iteration is part of the effort of the search
+        return result == null ? null : result.withEffort(new long[] { nodes }, System.nanoTime() - startTime);
+    }
+
+    /**
+     * Stops the running search, it returns the result of the last completed
+     * iteration. An iteration of depth 1 is finished before the search stops. Can
+     * be called from any thread.
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    /**
+     * Clears the stop flag before a search is started on another thread, so a
+     * stop that comes before the search has started is not lost.
+     */
+    void resetStop() {
+        stopped = false;
+    }
+
+    /**
+     * @return The number of nodes searched so far, it can lag behind by a few
+     *         thousand nodes while the search runs
+     */
+    long getReportedNodes() {
+        return reportedNodes;
+    }
+
+    /**
+     * Searches the root position, the best move of the previous iteration is
+     * searched first.
+     */
+    private int searchRoot(int depth, int previousBest) {
+        pvLengths[0] = 0;
+        MovePicker picker = pickers[0];
+        initPicker(picker, previousBest, 0);
+
+        if (countNode()) {
+            return -INFINITY;
+        }
+        int alpha = -INFINITY;
+        int move;
+        while ((move = picker.next()) != PackedMove.NONE) {
+            board.makeLegalMove(move);
+            int score = -negamax(depth - 1, -INFINITY, -alpha, 1);
+            board.undoMove();
+            if (isAborted()) {
+                return alpha;
+            }
+            if (score > alpha) {
+                alpha = score;
+                updatePrincipalVariation(0, move);
+            }
+        }
+        if (alpha == -INFINITY) {
+            return board.isInCheck() ? -MATE_SCORE : DRAW_SCORE;
+        }
+        return alpha;
+    }
+
+    private int negamax(int depth, int alpha, int beta, int ply) {
+        pvLengths[ply] = ply;
+        if (board.isRepetition() || board.isFiftyMoveDraw()) {
+            return DRAW_SCORE;
+        }
+        if (depth <= 0 || ply >= MAX_PLY - 1) {
+            return quiescence(alpha, beta, ply);
+        }
+        if (countNode()) {
+            return 0;
+        }
+
+        long key = board.getPositionKey();
+        long entry = table.probe(key);
+        int hashMove = PackedMove.NONE;
+        if (entry != TranspositionTable.NONE) {
+            hashMove = TranspositionTable.getMove(entry);
+            // Only cut off outside of the window, so the principal variation is
+            // always searched and stays complete
+            if (TranspositionTable.getDepth(entry) >= depth) {
+                int bound = TranspositionTable.getBound(entry);
+                int score = scoreFromTable(TranspositionTable.getScore(entry), ply);
+                if (score >= beta && bound != TranspositionTable.BOUND_UPPER) {
+                    return beta;
+                }
+                if (score <= alpha && bound != TranspositionTable.BOUND_LOWER) {
+                    return alpha;
+                }
+            }
+        }
+
+        MovePicker picker = pickers[ply];
+        initPicker(picker, hashMove, ply);
+
+        int bestMove = PackedMove.NONE;
+        int bound = TranspositionTable.BOUND_UPPER;
+        int searched = 0;
+        int move;
+        while ((move = picker.next()) != PackedMove.NONE) {
+            searched++;
+            board.makeLegalMove(move);
+            int score = -negamax(depth - 1, -beta, -alpha, ply + 1);
+            board.undoMove();
+            if (isAborted()) {
+                return 0;
+            }
+            if (score > alpha) {
+                bestMove = move;
+                if (score >= beta) {
+                    if (MovePicker.isQuiet(move)) {
+                        updateQuietCutoff(move, depth, ply);
+                    }
+                    table.store(key, move, scoreToTable(beta, ply), depth, TranspositionTable.BOUND_LOWER);
+                    return beta;
+                }
+                alpha = score;
+                bound = TranspositionTable.BOUND_EXACT;
+                updatePrincipalVariation(ply, move);
+            }
+        }
+        if (searched == 0) {
+            return board.isInCheck() ? -MATE_SCORE + ply : DRAW_SCORE;
+        }
+        table.store(key, bestMove, scoreToTable(alpha, ply), depth, bound);
+        return alpha;
+    }
+
+    /**
+     * Converts a score to be stored in the table. Mate scores are counted from
+     * the root, in the table they are counted from the stored position, so they
+     * stay right when the position is reached at another ply.
+     */
+    private static int scoreToTable(int score, int ply) {
+        if (score > MATE_BOUND) {
+            return score + ply;
+        }
+        if (score < -MATE_BOUND) {
+            return score - ply;
+        }
+        return score;
+    }
+
+    private static int scoreFromTable(int score, int ply) {
+        if (score > MATE_BOUND) {
+            return score - ply;
+        }
+        if (score < -MATE_BOUND) {
+            return score + ply;
+        }
+        return score;
+    }
+
+    /**
+     * Searches only the captures and promotions until the position is quiet, the
+     * captures that lose material by static exchange are skipped. The side to
+     * move can stand pat on the static evaluation, unless it is in check in which
+     * case every evasion is searched.
+     */
+    private int quiescence(int alpha, int beta, int ply) {
+        pvLengths[ply] = ply;
+        if (countNode()) {
+            return 0;
+        }
+
+        boolean inCheck = board.isInCheck();
+        if (!inCheck || ply >= MAX_PLY - 1) {
+            int standPat = board.evaluate();
+            if (standPat >= beta || ply >= MAX_PLY - 1) {
+                return Math.min(standPat, beta);
+            }
+            alpha = Math.max(alpha, standPat);
+        }
+
+        MovePicker picker = pickers[ply];
+        if (inCheck) {
+            initPicker(picker, PackedMove.NONE, ply);
+        } else {
+            picker.initCaptures(board);
+        }
+
+        int searched = 0;
+        int move;
+        while ((move = picker.next()) != PackedMove.NONE) {
+            searched++;
+            board.makeLegalMove(move);
+            int score = -quiescence(-beta, -alpha, ply + 1);
+            board.undoMove();
+            if (isAborted()) {
+                return 0;
+            }
+            if (score > alpha) {
+                if (score >= beta) {
+                    return beta;
+                }
+                alpha = score;
+                updatePrincipalVariation(ply, move);
+            }
+        }
+        if (inCheck && searched == 0) {
+            return -MATE_SCORE + ply;
+        }
+        return alpha;
+    }
+
+    private void initPicker(MovePicker picker, int hashMove, int ply) {
+        picker.init(board, hashMove, killers[ply][0], killers[ply][1],
+                history[board.getActiveColor().ordinal()]);
+    }
+
+    /**
+     * Remembers the quiet move that caused a cutoff as a killer move of the ply
+     * and raises its history score. Deep cutoffs weigh more, they save more nodes.
+     */
+    private void updateQuietCutoff(int move, int depth, int ply) {
+        if (killers[ply][0] != move) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+
+        int[] colorHistory = history[board.getActiveColor().ordinal()];
+        int index = MovePicker.historyIndex(move);
+        colorHistory[index] += depth * depth;
+        if (colorHistory[index] > MAX_HISTORY) {
+            // Halve every score so the recent cutoffs count more than the old ones
+            for (int[] scores : history) {
+                for (int i = 0; i < scores.length; i++) {
+                    scores[i] /= 2;
+                }
+            }
+        }
+    }
+
+    /**
+     * Makes the move followed by the best line of the next ply the best line of
+     * the ply.
+     */
+    private void updatePrincipalVariation(int ply, int move) {
+        pvTable[ply][ply] = move;
+        int length = pvLengths[ply + 1];
+        System.arraycopy(pvTable[ply + 1], ply + 1, pvTable[ply], ply + 1, length - ply - 1);
+        pvLengths[ply] = Math.max(length, ply + 1);
+    }
+
+    /**
+     * Counts a visited node and checks the limits, the nodes are no longer counted
+     * once the search has to stop.
+     * 
+     * @return True if the search has to stop else false
+     */
+    private boolean countNode() {
+        if (isAborted()) {
+            return true;
+        }
+        nodes++;
+        if (nodes >= limits.getNodes()) {
+            stopped = true;
+        } else if (nodes % TIME_CHECK_INTERVAL == 0) {
+            reportedNodes = nodes;
+            if (limits.getTimeMillis() != Long.MAX_VALUE
+                    && System.nanoTime() - startTime >= limits.getTimeMillis() * 1_000_000L) {
+                stopped = true;
+            }
+        }
+        return isAborted();
+    }
+
+    /**
+     * @return True if the search was stopped and the running iteration doesn't
+     *         have to be finished
+     */
+    private boolean isAborted() {
+        return stopped && !finishIteration;
+    }
+}
@@ -0,0 +1,81 @@
+package chess.engine;
+
+/**
+ * The budget of a search: the deepest iteration, the number of nodes and the
+ * time it may use. The search stops at whichever limit it reaches first. Limits
+ * are immutable, the with methods return a modified copy.
+ */
+public final class SearchLimits {
+    /**
+     * A search without limits, it only stops at the deepest possible iteration or
+     * when it is stopped.
+     */
+    public static final SearchLimits NONE = new SearchLimits(Search.MAX_DEPTH, Long.MAX_VALUE, Long.MAX_VALUE);
+
+    private final int depth;
+    private final long nodes;
+    private final long timeMillis;
+
+    private SearchLimits(int depth, long nodes, long timeMillis) {
+        this.depth = depth;
+        this.nodes = nodes;
+        this.timeMillis = timeMillis;
+    }
+
+    /**
+     * @param depth The deepest iteration to search
+     * @return Limits that only bound the depth
+     */
+    public static SearchLimits depth(int depth) {
+        return NONE.withDepth(depth);
+    }
+
+    /**
+     * @param nodes The number of nodes to search
+     * @return Limits that only bound the nodes
+     */
+    public static SearchLimits nodes(long nodes) {
+        return NONE.withNodes(nodes);
+    }
+
+    /**
+     * @param timeMillis The time to search in milliseconds
+     * @return Limits that only bound the time
+     */
+    public static SearchLimits time(long timeMillis) {
+        return NONE.withTime(timeMillis);
+    }
+
+    public SearchLimits withDepth(int depth) {
+        if (depth < 1 || Search.MAX_DEPTH < depth) {
+            throw new IllegalArgumentException("The depth must be between 1 and " + Search.MAX_DEPTH);
+        }
+        return new SearchLimits(depth, nodes, timeMillis);
+    }
+
+    public SearchLimits withNodes(long nodes) {
+        if (nodes < 1) {
+            throw new IllegalArgumentException("The node limit must be positive");
+        }
+        return new SearchLimits(depth, nodes, timeMillis);
+    }
+
+    public SearchLimits withTime(long timeMillis) {
+        if (timeMillis < 1) {
+            throw new IllegalArgumentException("The time limit must be positive");
+        }
+        return new SearchLimits(depth, nodes, timeMillis);
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+}
@@ -0,0 +1,191 @@
+package chess.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import chess.core.Move;
+import chess.core.PackedMove;
+import chess.core.Perft;
+import chess.core.Square;
+
+/**
+ * The outcome of a completed search iteration: the best move with its score,
+ * the principal variation and the effort that went into it. The effort is
+ * counted from the start of the search, the result returned at the end of a
+ * search counts the nodes and the time of the whole search, including an
+ * iteration that was aborted.
+ */
+public final class SearchResult {
+    private final int depth;
+    private final int score;
+    private final int[] principalVariation;
+    private final long[] threadNodes;
+    private final long nodes;
+    private final long elapsedNanos;
+
+    SearchResult(int depth, int score, int[] principalVariation, long[] threadNodes, long elapsedNanos) {
+        this.depth = depth;
+        this.score = score;
+        this.principalVariation = principalVariation;
+        this.threadNodes = threadNodes;
+        long nodes = 0;
+        for (long count : threadNodes) {
+            nodes += count;
+        }
+        this.nodes = nodes;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Creates a copy of the result with a different effort.
+     * 
+     * @param threadNodes  The node counts of every thread that took part in the
+     *                     search
+     * @param elapsedNanos The time the search took
+     */
+    SearchResult withEffort(long[] threadNodes, long elapsedNanos) {
+        return new SearchResult(depth, score, principalVariation, threadNodes, elapsedNanos);
+    }
+
+    /**
+     * @return The depth of the last completed iteration
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * @return The score in centipawns from the view of the side to move, mate
+     *         scores are above {@link Search#MATE_BOUND} in absolute value
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Checks if the score is a forced mate for either side.
+     * 
+     * @return True if the score is a mate score else false
+     */
+    public boolean isMate() {
+        return Math.abs(score) > Search.MATE_BOUND;
+    }
+
+    /**
+     * Returns the number of moves of the side to move until the mate, negative if
+     * the side to move gets mated.
+     * 
+     * @return The number of full moves to mate or 0 if the score is not a mate
+     */
+    public int getMovesToMate() {
+        if (!isMate()) {
+            return 0;
+        }
+        return score > 0 ? (Search.MATE_SCORE - score + 1) / 2 : -(Search.MATE_SCORE + score) / 2;
+    }
+
+    /**
+     * @return The best move or null if the position has no legal moves
+     */
+    public Move getBestMove() {
+        return principalVariation.length == 0 ? null : toMove(principalVariation[0]);
+    }
+
+    /**
+     * @return The best move packed, or {@link PackedMove#NONE} if the position has
+     *         no legal moves
+     */
+    public int getPackedBestMove() {
+        return principalVariation.length == 0 ? PackedMove.NONE : principalVariation[0];
+    }
+
+    /**
+     * @return The expected line of play, starting with the best move
+     */
+    public List<Move> getPrincipalVariation() {
+        List<Move> moves = new ArrayList<>(principalVariation.length);
+        for (int move : principalVariation) {
+            moves.add(toMove(move));
+        }
+        return moves;
+    }
+
+    /**
+     * @return The number of threads that searched
+     */
+    public int getThreadCount() {
+        return threadNodes.length;
+    }
+
+    /**
+     * Returns the number of nodes visited by one of the threads of the search.
+     * 
+     * @param thread The index of the thread, the thread that reports the results
+     *               is the first one
+     * @return The number of nodes
+     */
+    public long getThreadNodes(int thread) {
+        return threadNodes[thread];
+    }
+
+    /**
+     * Returns the speed of one of the threads of the search.
+     * 
+     * @param thread The index of the thread, the thread that reports the results
+     *               is the first one
+     * @return The number of nodes the thread searched per second
+     */
+    public long getThreadNodesPerSecond(int thread) {
+        return Perft.nodesPerSecond(threadNodes[thread], elapsedNanos);
+    }
+
+    /**
+     * @return The number of nodes visited by the whole search, on every thread
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * @return The time the search took in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * @return The number of nodes searched per second
+     */
+    public long getNodesPerSecond() {
+        return Perft.nodesPerSecond(nodes, elapsedNanos);
+    }
+
+    private static Move toMove(int packed) {
+        Square from = Square.of(PackedMove.getFrom(packed)), to = Square.of(PackedMove.getTo(packed));
+        return PackedMove.isPromotion(packed) ? new Move(from, to, PackedMove.getPromotion(packed))
+                : new Move(from, to);
+    }
+
+    /**
+     * Returns the result in the form of an info line, for example
+     * {@code depth 6 score cp 35 nodes 120345 nps 2500000 time 48 pv e2e4 e7e5}.
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("depth ").append(depth);
+        if (isMate()) {
+            sb.append(" score mate ").append(getMovesToMate());
+        } else {
+            sb.append(" score cp ").append(score);
+        }
+        sb.append(" nodes ").append(nodes)
+                .append(" nps ").append(getNodesPerSecond())
+                .append(" time ").append(elapsedNanos / 1_000_000)
+                .append(" pv");
+        for (int move : principalVariation) {
+            sb.append(' ').append(PackedMove.toString(move));
+        }
+        return sb.toString();
+    }
+}
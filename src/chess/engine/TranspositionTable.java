@@ -0,0 +1,184 @@
+package chess.engine;
+
+import java.util.Arrays;
+
+/**
+ * A fixed size cache of search results keyed by the Zobrist key of the position.
+ * Every entry is two longs of a single primitive array, the first holds the key
+ * xored with the data and the second the data itself:
+ * 
+ * <pre>
+ * bits  0-18 best move (packed), 0 if there is none
+ * bits 19-20 bound of the score
+ * bits 21-28 depth of the search
+ * bits 29-36 generation of the search that stored the entry
+ * bits 48-63 score (signed)
+ * </pre>
+ * 
+ * The table is shared by threads without locks. A write races with other writes
+ * and reads, but an entry whose two longs come from different writes doesn't
+ * xor back to the probed key, so a probe never returns a mixed up entry, it
+ * only misses. The array holds no references, so the garbage collector never
+ * scans it no matter how large it is.
+ */
+public final class TranspositionTable {
+    /**
+     * The score is exact, it is between the bounds of the search.
+     */
+    public static final int BOUND_EXACT = 1;
+
+    /**
+     * The score is a lower bound, the search failed high.
+     */
+    public static final int BOUND_LOWER = 2;
+
+    /**
+     * The score is an upper bound, the search failed low.
+     */
+    public static final int BOUND_UPPER = 3;
+
+    /**
+     * Returned by {@link #probe(long)} when the position is not in the table. Every
+     * stored entry has a bound, so no entry is zero.
+     */
+    public static final long NONE = 0L;
+
+    private static final int ENTRY_LONGS = 2, ENTRY_BYTES = ENTRY_LONGS * Long.BYTES;
+    // A Java array can't hold twice as many longs as this
+    private static final long MAX_ENTRIES = 1L << 29;
+
+    private static final int MOVE_MASK = (1 << 19) - 1;
+    private static final int BOUND_SHIFT = 19, BOUND_MASK = 0x3;
+    private static final int DEPTH_SHIFT = 21, DEPTH_MASK = 0xFF;
+    private static final int GENERATION_SHIFT = 29, GENERATION_MASK = 0xFF;
+    private static final int SCORE_SHIFT = 48;
+
+    private final long[] entries;
+    private final long indexMask;
+    private volatile int generation;
+
+    /**
+     * Creates an empty table, the number of entries is the largest power of two
+     * that fits into the size.
+     * 
+     * @param megabytes The size of the table in megabytes
+     */
+    public TranspositionTable(int megabytes) {
+        if (megabytes < 1) {
+            throw new IllegalArgumentException("The size of the table must be at least 1 MB");
+        }
+        long count = Long.highestOneBit(((long) megabytes << 20) / ENTRY_BYTES);
+        count = Math.min(count, MAX_ENTRIES);
+        this.entries = new long[(int) (count * ENTRY_LONGS)];
+        this.indexMask = count - 1;
+    }
+
+    /**
+     * Looks up the entry of the position.
+     * 
+     * @param key The Zobrist key of the position
+     * @return The data of the entry or {@link #NONE} if the position is not stored
+     */
+    public long probe(long key) {
+        int index = index(key);
+        long data = entries[index + 1];
+        return (entries[index] ^ data) == key ? data : NONE;
+    }
+
+    /**
+     * Stores the result of a search. An entry of another position is only replaced
+     * if it comes from an earlier search or it was searched less deep, the entry
+     * of the same position is always replaced.
+     * 
+     * @param key   The Zobrist key of the position
+     * @param move  The best move as a packed move, 0 if it is not known
+     * @param score The score, it must fit into 16 bits
+     * @param depth The depth of the search, between 0 and 255
+     * @param bound The bound of the score
+     */
+    public void store(long key, int move, int score, int depth, int bound) {
+        int index = index(key);
+        long oldData = entries[index + 1];
+        long oldKey = entries[index] ^ oldData;
+        if (oldData != NONE && oldKey != key && getGeneration(oldData) == generation && getDepth(oldData) > depth) {
+            return;
+        }
+        // Keep the best move of the position if the new search didn't find one
+        if (move == 0 && oldKey == key) {
+            move = getMove(oldData);
+        }
+
+        long data = (long) move
+                | (long) bound << BOUND_SHIFT
+                | (long) depth << DEPTH_SHIFT
+                | (long) generation << GENERATION_SHIFT
+                | (long) score << SCORE_SHIFT;
+        entries[index] = key ^ data;
+        entries[index + 1] = data;
+    }
+
+    /**
+     * Marks the start of a new search, the entries of the earlier searches are
+     * replaced first.
+     */
+    public void newSearch() {
+        generation = (generation + 1) & GENERATION_MASK;
+    }
+
+    /**
+     * Removes every entry from the table.
+     */
+    public void clear() {
+        Arrays.fill(entries, 0L);
+        generation = 0;
+    }
+
+    /**
+     * Returns how full the table is with entries of the current search, measured
+     * on a sample of the entries.
+     * 
+     * @return The used part of the table in permille
+     */
+    public int getUsage() {
+        int sample = (int) Math.min(1000, indexMask + 1);
+        int used = 0;
+        for (int i = 0; i < sample; i++) {
+            long data = entries[i * ENTRY_LONGS + 1];
+            if (data != NONE && getGeneration(data) == generation) {
+                used++;
+            }
+        }
+        return used * 1000 / sample;
+    }
+
+    /**
+     * @return The number of entries the table can hold
+     */
+    public long getCapacity() {
+        return indexMask + 1;
+    }
+
+    public static int getMove(long data) {
+        return (int) data & MOVE_MASK;
+    }
+
+    public static int getBound(long data) {
+        return (int) (data >>> BOUND_SHIFT) & BOUND_MASK;
+    }
+
+    public static int getDepth(long data) {
+        return (int) (data >>> DEPTH_SHIFT) & DEPTH_MASK;
+    }
+
+    public static int getScore(long data) {
+        return (int) (data >> SCORE_SHIFT);
+    }
+
+    private static int getGeneration(long data) {
+        return (int) (data >>> GENERATION_SHIFT) & GENERATION_MASK;
+    }
+
+    private int index(long key) {
+        return (int) (key & indexMask) * ENTRY_LONGS;
+    }
+}
@@ -1,8 +1,8 @@
 #!/usr/bin/env bash
 
 # Compile tests
-javac -d ./bin/ -cp "lib/junit-platform-console-standalone-1.9.1.jar:src/:test/" test/chess/core/*.java
+javac -d ./bin/ -cp "lib/junit-platform-console-standalone-1.9.1.jar:src/:test/" test/chess/core/*.java test/chess/engine/*.java
 
 # Run test
 java -cp "lib/junit-platform-console-standalone-1.9.1.jar:./bin/:src/:test/" org.junit.platform.console.ConsoleLauncher \
-  --select-package chess.core
\ No newline at end of file
+  --select-package chess.core --select-package chess.engine
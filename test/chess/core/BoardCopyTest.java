@@ -0,0 +1,53 @@
+package chess.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import chess.core.PGNParser.InvalidPGNException;
+
+public class BoardCopyTest {
+    @Test
+    public void copyIsIndependentTest() throws InvalidPGNException {
+        Board board = new Board();
+        board.loadPGN("1. e4 d5 2. exd5 Qxd5 3. Nc3");
+        Board copy = board.copy();
+        assertTrue(board.equals(copy));
+        assertEquals(board.getMoveCount(), copy.getMoveCount());
+
+        // Changing the copy leaves the original untouched
+        copy.undoMove();
+        copy.undoMove();
+        assertNotEquals(board.getPositionKey(), copy.getPositionKey());
+        assertEquals(PieceType.Pawn, copy.getPiece(Square.of("d5")).getType());
+        assertEquals(PieceType.Queen, board.getPiece(Square.of("d5")).getType());
+        assertEquals(5, board.getMoveCount());
+
+        // The pieces of the copy belong to the copy
+        assertEquals(board.generateMoves().size(), board.copy().generateMoves().size());
+        assertEquals(Perft.perft(board, 3), Perft.perft(board.copy(), 3));
+    }
+
+    @Test
+    public void positionTest() {
+        Board board = new Board("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        Position position = board.getPosition();
+        assertEquals(PieceType.Queen, position.getPieceType(Square.of("e7")));
+        assertEquals(PieceColor.BLACK, position.getPieceColor(Square.of("e7")));
+        assertEquals(null, position.getPieceType(Square.of("a5")));
+
+        // The snapshot doesn't follow the board
+        board.undoMove();
+        MoveList moves = new MoveList();
+        board.generateMoves(moves);
+        board.makeLegalMove(moves.get(0));
+        assertNotEquals(position.getPositionKey(), board.getPositionKey());
+
+        Board restored = position.toBoard();
+        assertEquals(position, restored.getPosition());
+        assertEquals(position.getPositionKey(), restored.getPositionKey());
+        assertEquals(2039, Perft.perft(restored, 2));
+    }
+}
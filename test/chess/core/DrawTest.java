@@ -0,0 +1,59 @@
+package chess.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import chess.core.PGNParser.InvalidPGNException;
+
+public class DrawTest {
+    @Test
+    public void repetitionTest() throws InvalidPGNException {
+        Board board = new Board();
+        board.loadPGN("1. Nf3 Nf6 2. Ng1 Ng8");
+        assertTrue(board.isRepetition());
+        assertFalse(board.isThreefold());
+
+        board.loadPGN("1. Nf3 Nf6 2. Ng1 Ng8 3. Nf3 Nf6 4. Ng1 Ng8");
+        assertTrue(board.isThreefold());
+        assertEquals(GameStatus.THREEFOLD_REPETITION, board.getGameStatus());
+
+        board.undoMove();
+        assertFalse(board.isThreefold());
+    }
+
+    @Test
+    public void irreversibleMoveTest() throws InvalidPGNException {
+        Board board = new Board();
+        board.loadPGN("1. Nf3 Nf6 2. Ng1 Ng8 3. e4 Nf6 4. Nf3 Ng8");
+        assertEquals(3, board.getHalfmoveClock());
+        assertFalse(board.isRepetition());
+
+        // Only the positions after the pawn move can repeat
+        board.loadPGN("1. Nf3 Nf6 2. Ng1 Ng8 3. e4 Nf6 4. Nf3 Ng8 5. Ng1 Nf6 6. Nf3");
+        assertEquals(6, board.getHalfmoveClock());
+        assertTrue(board.isRepetition());
+        assertFalse(board.isThreefold());
+    }
+
+    @Test
+    public void fiftyMoveTest() {
+        Board board = new Board("8/8/4k3/8/8/4K3/8/7R w - - 99 80");
+        assertEquals(99, board.getHalfmoveClock());
+        assertEquals(80, board.getFullmoveNumber());
+        assertFalse(board.isFiftyMoveDraw());
+
+        MoveList moves = new MoveList();
+        board.generateMoves(moves);
+        board.makeLegalMove(moves.get(0));
+        assertEquals(100, board.getHalfmoveClock());
+        assertEquals(80, board.getFullmoveNumber());
+        assertTrue(board.isFiftyMoveDraw());
+        assertEquals(GameStatus.FIFTY_MOVE_DRAW, board.getGameStatus());
+
+        board.undoMove();
+        assertEquals(99, board.getHalfmoveClock());
+    }
+}
@@ -0,0 +1,44 @@
+package chess.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import chess.core.Perft.ReferencePosition;
+
+public class EncodingTest {
+    @Test
+    public void roundTripTest() {
+        byte[] buffer = new byte[2 * Board.ENCODED_SIZE];
+        Board decoded = new Board();
+        for (ReferencePosition position : Perft.REFERENCE_POSITIONS) {
+            Board board = new Board(position.getFEN());
+            MoveList moves = new MoveList();
+            board.generateMoves(moves);
+            for (int i = 0; i < moves.size(); i++) {
+                board.makeLegalMove(moves.get(i));
+                board.encode(buffer, Board.ENCODED_SIZE);
+                decoded.decode(buffer, Board.ENCODED_SIZE);
+
+                assertTrue(board.equals(decoded));
+                assertEquals(board.getPositionKey(), decoded.getPositionKey());
+                assertEquals(board.getHalfmoveClock(), decoded.getHalfmoveClock());
+                assertEquals(board.getFullmoveNumber(), decoded.getFullmoveNumber());
+                board.undoMove();
+            }
+        }
+    }
+
+    @Test
+    public void decodedBoardPlaysTest() {
+        Board board = new Board(Perft.REFERENCE_POSITIONS.get(1).getFEN());
+        byte[] buffer = new byte[Board.ENCODED_SIZE];
+        board.encode(buffer, 0);
+
+        Board decoded = new Board();
+        decoded.decode(buffer, 0);
+        assertEquals(0, decoded.getMoveCount());
+        assertEquals(97862, Perft.perft(decoded, 3));
+    }
+}
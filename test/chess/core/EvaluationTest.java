@@ -0,0 +1,54 @@
+package chess.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import chess.core.Perft.ReferencePosition;
+
+public class EvaluationTest {
+    @Test
+    public void incrementalTest() {
+        // After every move the updated score must equal the score of the same
+        // position set up from scratch
+        for (ReferencePosition position : Perft.REFERENCE_POSITIONS) {
+            Board board = new Board(position.getFEN());
+            int score = board.evaluate();
+            MoveList moves = new MoveList(), replies = new MoveList();
+            board.generateMoves(moves);
+            for (int i = 0; i < moves.size(); i++) {
+                board.makeLegalMove(moves.get(i));
+                assertEquals(new Board(board.toFEN()).evaluate(), board.evaluate());
+                board.generateMoves(replies);
+                for (int j = 0; j < replies.size(); j++) {
+                    board.makeLegalMove(replies.get(j));
+                    assertEquals(new Board(board.toFEN()).evaluate(), board.evaluate());
+                    board.undoMove();
+                }
+                board.undoMove();
+            }
+            assertEquals(score, board.evaluate());
+        }
+    }
+
+    @Test
+    public void symmetryTest() {
+        assertEquals(0, new Board().evaluate());
+
+        // The same position with the colors swapped scores the same for the side
+        // to move
+        Board white = new Board("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        Board black = new Board("r3k2r/pppbbppp/2n2q1P/1P2p3/3pn3/BN2PNP1/P1PPQPB1/R3K2R b KQkq - 0 1");
+        assertEquals(white.evaluate(), black.evaluate());
+    }
+
+    @Test
+    public void materialTest() {
+        // White is a queen up
+        Board board = new Board("rnb1kbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1");
+        assertTrue(board.evaluate() > 800);
+        board.makeLegalMove(new Move(Square.of("g1"), Square.of("f3")));
+        assertTrue(board.evaluate() < -800);
+    }
+}
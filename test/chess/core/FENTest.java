@@ -0,0 +1,105 @@
+package chess.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import chess.core.FENParser.InvalidFENException;
+import chess.core.Perft.ReferencePosition;
+
+public class FENTest {
+    @Test
+    public void roundTripTest() throws InvalidFENException {
+        Board loaded = new Board();
+        for (ReferencePosition position : Perft.REFERENCE_POSITIONS) {
+            assertEquals(position.getFEN(), new Board(position.getFEN()).toFEN());
+
+            Board board = new Board(position.getFEN());
+            MoveList moves = new MoveList();
+            board.generateMoves(moves);
+            for (int i = 0; i < moves.size(); i++) {
+                board.makeLegalMove(moves.get(i));
+                loaded.loadFEN(board.toFEN());
+
+                assertTrue(board.equals(loaded));
+                assertEquals(board.getPositionKey(), loaded.getPositionKey());
+                assertEquals(board.getHalfmoveClock(), loaded.getHalfmoveClock());
+                assertEquals(board.getFullmoveNumber(), loaded.getFullmoveNumber());
+                board.undoMove();
+            }
+        }
+    }
+
+    @Test
+    public void enPassantTest() throws InvalidFENException {
+        Board board = new Board();
+        board.loadFEN("rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w KQkq f6 0 3");
+        assertEquals(Square.of("f6"), board.getEnPassantSquare());
+
+        // No pawn can capture on e3, so the square is left out
+        board.loadFEN("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1");
+        assertEquals(null, board.getEnPassantSquare());
+        assertEquals("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq - 0 1", board.toFEN());
+    }
+
+    @Test
+    public void trailingSpaceTest() {
+        String[] fens = {
+                "8/8/8/8/4K3/8/8/8 w - ",
+                "8/8/8/8/4K3/8/8/8 w - - ",
+                "8/8/8/8/4K3/8/8/8 w - - 0 1 ",
+        };
+        for (String fen : fens) {
+            try {
+                new Board().loadFEN(fen);
+                fail("FEN with a trailing space was loaded: " + fen);
+            } catch (InvalidFENException e) {
+                assertEquals("Trailing space after the last field", e.getMessage());
+            }
+        }
+    }
+
+    @Test
+    public void optionalFieldsTest() throws InvalidFENException {
+        Board board = new Board();
+        board.loadFEN("8/8/8/8/4K3/8/8/8 w -");
+        assertEquals("8/8/8/8/4K3/8/8/8 w - - 0 1", board.toFEN());
+    }
+
+    @Test
+    public void invalidFENTest() {
+        String[] invalid = {
+                "",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP w KQkq - 0 1",
+                "rnbqkbnr/pppppppp/9/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNRR w KQkq - 0 1",
+                "rnbqkbnr/ppppxppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR x KQkq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkx - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KKkq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq e4 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - x 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 0",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1 x",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w  KQkq - 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq e6 0 1",
+                "rnbqkbnr/pppp1ppp/4p3/4p3/8/8/PPPPPPPP/RNBQKBNR w KQkq e6 0 1",
+                "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq d3 0 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 99999999999 1",
+                "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 4294967297",
+        };
+
+        Board board = new Board();
+        for (String fen : invalid) {
+            try {
+                board.loadFEN(fen);
+                fail("Invalid FEN was loaded: " + fen);
+            } catch (InvalidFENException e) {
+                // The board is left unchanged
+                assertTrue(board.equals(new Board()));
+            }
+        }
+    }
+}
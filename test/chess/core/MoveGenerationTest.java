@@ -1,10 +1,13 @@
 package chess.core;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 import org.junit.Test;
 
 import chess.core.Board.IllegalMove;
+import chess.core.PGNParser.InvalidPGNException;
 
 public class MoveGenerationTest {
     @Test
@@ -15,6 +18,123 @@ public class MoveGenerationTest {
         assertEquals(countPositions(board, 1), 41);
     }
 
+    @Test
+    public void countLegalMovesTest() {
+        Board board = new Board("rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8");
+        // Every promotion is counted, generateMoves() only returns the queen ones
+        assertEquals(44, board.countLegalMoves());
+        assertTrue(board.hasAnyLegalMove());
+        assertEquals(GameStatus.ONGOING, board.getGameStatus());
+    }
+
+    @Test
+    public void gameStatusTest() throws InvalidPGNException {
+        Board board = new Board();
+        board.loadPGN("1. f3 e5 2. g4 Qh4");
+        assertEquals(0, board.countLegalMoves());
+        assertEquals(GameStatus.CHECKMATE, board.getGameStatus());
+
+        board.mustLoadFEN("7k/5Q2/6K1/8/8/8/8/8 b - -");
+        assertFalse(board.hasAnyLegalMove());
+        assertEquals(GameStatus.STALEMATE, board.getGameStatus());
+
+        // Only a pawn can move, the king is boxed in
+        board.mustLoadFEN("7k/5Q2/6K1/8/8/8/p7/8 b - -");
+        assertTrue(board.hasAnyLegalMove());
+        assertEquals(4, board.countLegalMoves());
+    }
+
+    @Test
+    public void capturesAndQuietMovesTest() {
+        // The two kinds together must be exactly the legal moves in every position
+        // of the tree, including the ones in check
+        MoveList all = new MoveList(), captures = new MoveList(), quiets = new MoveList();
+        for (Perft.ReferencePosition position : Perft.REFERENCE_POSITIONS) {
+            Board board = new Board(position.getFEN());
+            board.generateMoves(all);
+            for (int i = 0; i < all.size(); i++) {
+                board.makeLegalMove(all.get(i));
+                MoveList replies = new MoveList();
+                board.generateMoves(replies);
+                for (int j = 0; j < replies.size(); j++) {
+                    board.makeLegalMove(replies.get(j));
+                    assertSplit(board, captures, quiets);
+                    board.undoMove();
+                }
+                assertSplit(board, captures, quiets);
+                board.undoMove();
+            }
+        }
+    }
+
+    @Test
+    public void attacksFromTest() {
+        Board board = new Board("4k3/8/8/8/8/8/P7/R3K1N1 w - - 0 1");
+        // The rook stops at the first piece on every ray, whatever its color
+        assertEquals(squares("a2", "b1", "c1", "d1", "e1"), board.attacksFrom(Square.of("a1")));
+        assertEquals(squares("e2", "f3", "h3"), board.attacksFrom(Square.of("g1")));
+        assertEquals(squares("b3"), board.attacksFrom(Square.of("a2")));
+        assertEquals(0L, board.attacksFrom(Square.of("d4")));
+
+        // Without the pawn on d5 the bishop sees through to the end of the diagonal
+        int bishop = Square.of("b7").getIndex();
+        long occupied = squares("b7", "d5");
+        assertEquals(squares("a8", "c8", "a6", "c6", "d5"), Attacks.bishop(bishop, occupied));
+        assertEquals(squares("a8", "c8", "a6", "c6", "d5", "e4", "f3", "g2", "h1"),
+                Attacks.bishop(bishop, occupied & ~squares("d5")));
+    }
+
+    @Test
+    public void isSquareAttackedTest() {
+        Board board = new Board("q3k3/1b6/8/3P4/8/8/8/4K2R b K - 0 1");
+        // The queen on a8 is behind the bishop, it doesn't attack through it
+        assertTrue(board.isSquareAttacked(Square.of("c6"), PieceColor.BLACK));
+        assertTrue(board.isSquareAttacked(Square.of("d5"), PieceColor.BLACK));
+        assertFalse(board.isSquareAttacked(Square.of("e4"), PieceColor.BLACK));
+        assertTrue(board.isSquareAttacked(Square.of("d8"), PieceColor.BLACK));
+        assertFalse(board.isSquareAttacked(Square.of("g8"), PieceColor.BLACK));
+        assertTrue(board.isSquareAttacked(Square.of("a1"), PieceColor.BLACK));
+
+        // The pawn attacks diagonally forward only
+        assertTrue(board.isSquareAttacked(Square.of("e6"), PieceColor.WHITE));
+        assertTrue(board.isSquareAttacked(Square.of("c6"), PieceColor.WHITE));
+        assertFalse(board.isSquareAttacked(Square.of("d6"), PieceColor.WHITE));
+        assertFalse(board.isSquareAttacked(Square.of("e4"), PieceColor.WHITE));
+
+        // The rook is blocked by its own king on the first rank
+        assertTrue(board.isSquareAttacked(Square.of("f1"), PieceColor.WHITE));
+        assertTrue(board.isSquareAttacked(Square.of("h8"), PieceColor.WHITE));
+        assertFalse(board.isSquareAttacked(Square.of("c1"), PieceColor.BLACK));
+        assertFalse(board.isSquareAttacked(Square.of("d1"), PieceColor.BLACK));
+        assertTrue(board.isSquareAttacked(Square.of("d2"), PieceColor.WHITE));
+    }
+
+    private static long squares(String... names) {
+        long bitboard = 0L;
+        for (String name : names) {
+            bitboard |= Bitboard.bit(Square.of(name).getIndex());
+        }
+        return bitboard;
+    }
+
+    private static void assertSplit(Board board, MoveList captures, MoveList quiets) {
+        MoveList all = new MoveList();
+        board.generateMoves(all);
+        board.generateCaptures(captures);
+        board.generateQuietMoves(quiets);
+        assertEquals(all.size(), captures.size() + quiets.size());
+        for (int i = 0; i < captures.size(); i++) {
+            int move = captures.get(i);
+            assertTrue(all.contains(move));
+            assertTrue(PackedMove.isCapture(move) || PackedMove.isPromotion(move));
+        }
+        for (int i = 0; i < quiets.size(); i++) {
+            int move = quiets.get(i);
+            assertTrue(all.contains(move));
+            assertFalse(PackedMove.isCapture(move) || PackedMove.isPromotion(move));
+        }
+    }
+
     public int countPositions(Board board, int depth) {
         if (depth <= 0) {
             return 1;
@@ -1,5 +1,6 @@
 package chess.core;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 import org.junit.Before;
@@ -41,4 +42,24 @@ public class MoveTest {
 
         assertTrue(board.equals(new Board()));
     }
+
+    @Test
+    public void moveReuseTest() throws IllegalMove {
+        // The same move object can be played on several boards
+        Move move = new Move(Square.of("e2"), Square.of("e4"));
+        Board other = new Board();
+        board.makeMove(move);
+        other.makeMove(move);
+        assertTrue(board.equals(other));
+
+        // Promotions keep the piece type of the move that was played
+        board.mustLoadFEN("8/4P3/8/8/8/8/8/k6K w - -");
+        Move promotion = new Move(Square.of("e7"), Square.of("e8"), PieceType.Knight);
+        board.makeMove(promotion);
+        assertEquals(PieceType.Knight, board.getPiece(Square.of("e8")).getType());
+        assertEquals(PieceType.Knight, board.getLastMove().getPromotionTo());
+        assertEquals(PieceType.Pawn, board.getLastMove().getMovedPiece().getType());
+        board.undoMove();
+        assertEquals(PieceType.Pawn, board.getPiece(Square.of("e7")).getType());
+    }
 }
@@ -0,0 +1,37 @@
+package chess.core;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import chess.core.Perft.ReferencePosition;
+
+public class ParallelPerftTest {
+    private static final long MAX_NODES = 5_000_000;
+
+    @Test
+    public void referencePositionsTest() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        for (ReferencePosition position : Perft.REFERENCE_POSITIONS) {
+            int depth = 1;
+            while (depth < position.getMaxDepth() && position.getNodes(depth + 1) <= MAX_NODES) {
+                depth++;
+            }
+            assertEquals(position.getName() + " at depth " + depth,
+                    position.getNodes(depth), ParallelPerft.perft(new Board(position.getFEN()), depth, pool));
+        }
+        pool.shutdown();
+    }
+
+    @Test
+    public void divideTest() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        Board board = new Board(Perft.REFERENCE_POSITIONS.get(1).getFEN());
+        Map<String, Long> expected = Perft.divide(board, 3);
+        assertEquals(expected, ParallelPerft.divide(board, 3, pool));
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,57 @@
+package chess.core;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Map;
+
+import org.junit.Test;
+
+import chess.core.Perft.ReferencePosition;
+
+public class PerftTest {
+    // Keeps the test suite fast, deeper runs belong to the perft tool
+    private static final long MAX_NODES = 200_000;
+
+    @Test
+    public void referencePositionsTest() {
+        for (ReferencePosition position : Perft.REFERENCE_POSITIONS) {
+            Board board = new Board(position.getFEN());
+            for (int depth = 1; depth <= position.getMaxDepth() && position.getNodes(depth) <= MAX_NODES; depth++) {
+                assertEquals(position.getName() + " at depth " + depth,
+                        position.getNodes(depth), Perft.perft(board, depth));
+            }
+        }
+    }
+
+    @Test
+    public void divideTest() {
+        Board board = new Board();
+        Map<String, Long> counts = Perft.divide(board, 3);
+        assertEquals(20, counts.size());
+        assertEquals(Long.valueOf(600), counts.get("e2e4"));
+
+        long nodes = 0;
+        for (long count : counts.values()) {
+            nodes += count;
+        }
+        assertEquals(8902, nodes);
+    }
+
+    @Test
+    public void nodesPerSecondTest() {
+        assertEquals(2_000_000, Perft.nodesPerSecond(1_000_000, 500_000_000L));
+        // Kiwipete at depth 7 in 10 seconds, multiplying first would overflow
+        assertEquals(37_412_265_117L, Perft.nodesPerSecond(374_122_651_170L, 10_000_000_000L));
+        assertEquals(0, Perft.nodesPerSecond(1000, 0));
+    }
+
+    @Test
+    public void enPassantTest() {
+        // The pawn on b4 gives check, the king is boxed in and the pawn is
+        // defended, so the only way out of check is capturing it en passant
+        Board board = new Board("8/8/pp6/kp6/1Pp5/P1N5/8/4K3 b - b3 0 1");
+        Map<String, Long> counts = Perft.divide(board, 1);
+        assertEquals(1, counts.size());
+        assertEquals(Long.valueOf(1), counts.get("c4b3"));
+    }
+}
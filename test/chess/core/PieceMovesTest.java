@@ -26,19 +26,14 @@ public class PieceMovesTest {
     @Before
     public void setUp() {
         board = new Board();
-        for (int i = 0; i < board.squares.length; i++) {
-            for (int j = 0; j < board.squares[i].length; j++) {
-                board.squares[i][j] = null;
-            }
-        }
     }
 
     @Test
     public void runTest() {
         String fen = String.format("8/8/8/8/4%c3/8/8/8 w -", pieceToFEN(type, PieceColor.WHITE));
         board.mustLoadFEN(fen);
-        Piece p = board.getPiece(new Square("e4"));
-        List<Move> moves = p.generateMoves();
+        Piece p = board.getPiece(Square.of("e4"));
+        List<Move> moves = p.generateMoves(board, Square.of("e4"));
         assertEquals(numMoves, moves.size());
     }
 
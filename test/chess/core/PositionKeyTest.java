@@ -0,0 +1,51 @@
+package chess.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import chess.core.PGNParser.InvalidPGNException;
+
+public class PositionKeyTest {
+    @Test
+    public void transpositionTest() throws InvalidPGNException {
+        Board board1 = new Board();
+        board1.loadPGN("1. Nf3 Nf6 2. Nc3 Nc6");
+        Board board2 = new Board();
+        board2.loadPGN("1. Nc3 Nc6 2. Nf3 Nf6");
+
+        assertTrue(board1.equals(board2));
+        assertEquals(board1.getPositionKey(), board2.getPositionKey());
+        assertEquals(board1.hashCode(), board2.hashCode());
+    }
+
+    @Test
+    public void undoRestoresKeyTest() {
+        Board board = new Board();
+        board.mustLoadFEN("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq -");
+        long key = board.getPositionKey();
+
+        MoveList moves = new MoveList();
+        board.generateMoves(moves);
+        for (int i = 0; i < moves.size(); i++) {
+            board.makeLegalMove(moves.get(i));
+            assertNotEquals(key, board.getPositionKey());
+            board.undoMove();
+            assertEquals(key, board.getPositionKey());
+        }
+    }
+
+    @Test
+    public void castlingRightsTest() throws InvalidPGNException {
+        // Same pieces and side to move but white has lost its castling rights
+        Board board1 = new Board();
+        board1.loadPGN("1. Nf3 Nf6 2. Rg1 Ng8 3. Rh1 Nf6");
+        Board board2 = new Board();
+        board2.loadPGN("1. Nf3 Nf6");
+
+        assertTrue(!board1.equals(board2));
+        assertNotEquals(board1.getPositionKey(), board2.getPositionKey());
+    }
+}
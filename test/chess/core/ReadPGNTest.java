@@ -39,7 +39,7 @@ public class ReadPGNTest {
             if (Character.isDigit(c)) {
                 int emptySquares = c - '0';
                 for (int i = col; i < col + emptySquares; i++) {
-                    assertEquals(board.squares[row][col], null);
+                    assertEquals(board.getPiece(row, col), null);
                 }
                 col += emptySquares;
             } else if (c == '/') {
@@ -47,9 +47,9 @@ public class ReadPGNTest {
                 col = 0;
             } else {
                 PieceType type = PieceType.fromCharacter(c);
-                assertNotEquals(board.squares[row][col], null);
-                assertEquals(board.squares[row][col].getType(), type);
-                assertEquals(board.squares[row][col].getColor(),
+                assertNotEquals(board.getPiece(row, col), null);
+                assertEquals(board.getPiece(row, col).getType(), type);
+                assertEquals(board.getPiece(row, col).getColor(),
                         Character.isUpperCase(c) ? PieceColor.WHITE : PieceColor.BLACK);
                 col++;
             }
@@ -0,0 +1,53 @@
+package chess.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class SquareTest {
+    @Test
+    public void ofTest() {
+        for (int rank = 0; rank < Board.HEIGHT; rank++) {
+            for (int file = 0; file < Board.WIDTH; file++) {
+                Square square = new Square(rank, file);
+                assertEquals(square, Square.of(rank, file));
+                assertSame(Square.of(rank, file), Square.of(square.getIndex()));
+                assertSame(Square.of(rank, file), Square.of(square.toString()));
+                assertEquals(new Square(square.toString()), Square.of(square.toString()));
+            }
+        }
+        assertEquals(new Square(4, 4), Square.of("e4"));
+        assertEquals(new Square(0, 0), Square.of("a8"));
+        assertEquals(new Square(7, 7), Square.of("h1"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void ofOutsideTest() {
+        Square.of(Board.HEIGHT, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void ofInvalidNameTest() {
+        Square.of("i9");
+    }
+
+    @Test
+    public void hashCodeTest() {
+        Set<Integer> hashCodes = new HashSet<>();
+        for (int index = 0; index < Board.WIDTH * Board.HEIGHT; index++) {
+            Square square = Square.of(index);
+            Square copy = new Square(square.rank, square.file);
+            assertEquals(square, copy);
+            assertEquals(square.hashCode(), copy.hashCode());
+            hashCodes.add(square.hashCode());
+        }
+        // Every square of the board has its own hash code
+        assertEquals(Board.WIDTH * Board.HEIGHT, hashCodes.size());
+        assertNotEquals(Square.of("e4"), Square.of("e5"));
+    }
+}
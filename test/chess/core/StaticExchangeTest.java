@@ -0,0 +1,45 @@
+package chess.core;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class StaticExchangeTest {
+    @Test
+    public void capturesTest() {
+        // The pawn is only defended by the rook, which can't recapture safely
+        assertEquals(1, exchange("1k1r4/1pp4p/p7/4p3/8/P5P1/1PP4P/2K1R3 w - - 0 1", "e1", "e5"));
+        // The knight is lost for a pawn, both sides have batteries behind the
+        // first attackers
+        assertEquals(-2, exchange("1k1r3q/1ppn3p/p4b2/4p3/8/P2N2P1/1PP1R1BP/2K1Q3 w - - 0 1", "d3", "e5"));
+        // An undefended piece
+        assertEquals(3, exchange("4k3/8/8/3n4/8/8/3R4/4K3 w - - 0 1", "d2", "d5"));
+    }
+
+    @Test
+    public void xrayTest() {
+        // The second rook recaptures through the square of the first one
+        assertEquals(1, exchange("3rk3/8/8/3p4/8/8/3R4/3RK3 w - - 0 1", "d2", "d5"));
+        // Without it the capture loses the exchange
+        assertEquals(-4, exchange("3rk3/8/8/3p4/8/8/3R4/4K3 w - - 0 1", "d2", "d5"));
+    }
+
+    @Test
+    public void specialMovesTest() {
+        // A quiet move onto a square attacked by a pawn loses the queen
+        assertEquals(-8, exchange("4k3/8/4p3/8/8/8/8/3QK3 w - - 0 1", "d1", "d5"));
+        // En passant wins a pawn
+        assertEquals(1, exchange("4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 1", "e5", "d6"));
+        // A promotion that can be recaptured only trades the pawn
+        assertEquals(-1, exchange("3rk3/2P5/8/8/8/8/8/4K3 w - - 0 1", "c7", "c8"));
+        // The king takes back the rook
+        assertEquals(1, exchange("3rk3/8/8/8/8/8/3p3R/4K3 w - - 0 1", "h2", "d2"));
+        // but not if the second rook defends it
+        assertEquals(-4, exchange("3rk3/3r4/8/8/8/8/3p3R/4K3 w - - 0 1", "h2", "d2"));
+    }
+
+    private static int exchange(String fen, String from, String to) {
+        Board board = new Board(fen);
+        return board.staticExchange(new Move(Square.of(from), Square.of(to)));
+    }
+}
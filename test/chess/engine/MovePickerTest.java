@@ -0,0 +1,104 @@
+package chess.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.Test;
+
+import chess.core.Board;
+import chess.core.MoveList;
+import chess.core.PackedMove;
+import chess.core.Perft;
+import chess.core.Perft.ReferencePosition;
+import chess.core.Square;
+
+public class MovePickerTest {
+    private final int[] history = new int[MovePicker.HISTORY_SIZE];
+
+    @Test
+    public void everyMoveOnceTest() {
+        MovePicker picker = new MovePicker();
+        MoveList moves = new MoveList();
+        for (ReferencePosition position : Perft.REFERENCE_POSITIONS) {
+            Board board = new Board(position.getFEN());
+            board.generateMoves(moves);
+            // A hash move and killers from another position must be skipped
+            int foreign = PackedMove.of(Square.of("a1").getIndex(), Square.of("h8").getIndex(), 0);
+            picker.init(board, moves.get(moves.size() - 1), foreign, moves.get(0), history);
+
+            List<Integer> picked = pickAll(picker);
+            assertEquals(moves.get(moves.size() - 1), (int) picked.get(0));
+            assertEquals(moves.size(), picked.size());
+            assertEquals(moves.size(), new HashSet<>(picked).size());
+            for (int move : picked) {
+                assertTrue(moves.contains(move));
+            }
+        }
+    }
+
+    @Test
+    public void orderTest() {
+        // The pawn and the queen can both take the queen on d5
+        Board board = new Board("4k3/p7/8/3q4/4P3/8/8/3QK3 w - - 0 1");
+        int pawnTakesQueen = move(board, "e4", "d5");
+        int queenTakesQueen = move(board, "d1", "d5");
+        int killer = move(board, "e1", "f2");
+        int historyMove = move(board, "d1", "h5");
+        history[MovePicker.historyIndex(historyMove)] = 100;
+
+        MovePicker picker = new MovePicker();
+        picker.init(board, PackedMove.NONE, killer, PackedMove.NONE, history);
+        List<Integer> picked = pickAll(picker);
+        assertEquals(pawnTakesQueen, (int) picked.get(0));
+        assertEquals(queenTakesQueen, (int) picked.get(1));
+        assertEquals(killer, (int) picked.get(2));
+        assertEquals(historyMove, (int) picked.get(3));
+
+        picker.initCaptures(board);
+        picked = pickAll(picker);
+        assertEquals(2, picked.size());
+        assertFalse(picked.contains(killer));
+    }
+
+    @Test
+    public void badCapturesTest() {
+        // Taking the pawn on d5 loses the queen, taking the one on a7 is safe
+        Board board = new Board("4k3/p7/4p3/3p4/8/8/8/R2QK3 w - - 0 1");
+        int badCapture = move(board, "d1", "d5");
+        int goodCapture = move(board, "a1", "a7");
+
+        MovePicker picker = new MovePicker();
+        picker.init(board, PackedMove.NONE, PackedMove.NONE, PackedMove.NONE, history);
+        List<Integer> picked = pickAll(picker);
+        assertEquals(goodCapture, (int) picked.get(0));
+        assertEquals(badCapture, (int) picked.get(picked.size() - 1));
+
+        picker.initCaptures(board);
+        assertEquals(List.of(goodCapture), pickAll(picker));
+    }
+
+    private static List<Integer> pickAll(MovePicker picker) {
+        List<Integer> picked = new ArrayList<>();
+        int move;
+        while ((move = picker.next()) != PackedMove.NONE) {
+            picked.add(move);
+        }
+        return picked;
+    }
+
+    private static int move(Board board, String from, String to) {
+        MoveList moves = new MoveList();
+        board.generateMoves(moves);
+        for (int i = 0; i < moves.size(); i++) {
+            if (PackedMove.toString(moves.get(i)).equals(from + to)) {
+                return moves.get(i);
+            }
+        }
+        throw new IllegalArgumentException(from + to + " is not a legal move");
+    }
+}
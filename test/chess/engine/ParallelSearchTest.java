@@ -0,0 +1,59 @@
+package chess.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import chess.core.Board;
+import chess.core.Move;
+import chess.core.Square;
+
+public class ParallelSearchTest {
+    @Test
+    public void mateInOneTest() {
+        Board board = new Board("6k1/5ppp/8/8/8/8/5PPP/3R2K1 w - - 0 1");
+        SearchResult result = new ParallelSearch(3).search(board, SearchLimits.depth(4));
+        assertEquals(new Move(Square.of("d1"), Square.of("d8")), result.getBestMove());
+        assertTrue(result.isMate());
+        assertEquals(1, result.getMovesToMate());
+    }
+
+    @Test
+    public void threadNodesTest() {
+        Board board = new Board();
+        String fen = board.toFEN();
+        ParallelSearch search = new ParallelSearch(2, new TranspositionTable(1));
+        SearchResult result = search.search(board, SearchLimits.depth(5));
+
+        assertEquals(fen, board.toFEN());
+        assertEquals(5, result.getDepth());
+        assertEquals(2, result.getThreadCount());
+        assertTrue(result.getThreadNodes(0) > 0);
+        assertEquals(result.getThreadNodes(0) + result.getThreadNodes(1), result.getNodes());
+
+        // The search can be repeated with the same threads, the result counts the
+        // nodes of the aborted iteration too
+        result = search.search(board, SearchLimits.nodes(1000));
+        assertEquals(2, result.getThreadCount());
+        assertEquals(1000, result.getThreadNodes(0));
+        assertEquals(result.getThreadNodes(0) + result.getThreadNodes(1), result.getNodes());
+    }
+
+    @Test
+    public void nodesPerSecondTest() {
+        // Twelve billion nodes on two threads in ten seconds, multiplying the
+        // nodes by a billion first would overflow
+        SearchResult result = new SearchResult(20, 0, new int[0], new long[] { 7_000_000_000L, 5_000_000_000L },
+                10_000_000_000L);
+        assertEquals(12_000_000_000L, result.getNodes());
+        assertEquals(1_200_000_000L, result.getNodesPerSecond());
+        assertEquals(700_000_000L, result.getThreadNodesPerSecond(0));
+        assertEquals(500_000_000L, result.getThreadNodesPerSecond(1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void noThreadsTest() {
+        new ParallelSearch(0);
+    }
+}
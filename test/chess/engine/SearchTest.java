@@ -0,0 +1,89 @@
+package chess.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import chess.core.Board;
+import chess.core.Move;
+import chess.core.Square;
+
+public class SearchTest {
+    @Test
+    public void mateInOneTest() {
+        Board board = new Board("6k1/5ppp/8/8/8/8/5PPP/3R2K1 w - - 0 1");
+        SearchResult result = new Search().search(board, SearchLimits.depth(4));
+        assertEquals(new Move(Square.of("d1"), Square.of("d8")), result.getBestMove());
+        assertTrue(result.isMate());
+        assertEquals(1, result.getMovesToMate());
+    }
+
+    @Test
+    public void mateInThreeTest() {
+        // 1. Bxf8 and the queen mates on g7 or d8
+        Board board = new Board("5rk1/5p1p/5PpB/8/8/8/3Q1PPP/6K1 w - - 0 1");
+        SearchResult result = new Search().search(board, SearchLimits.depth(8));
+        assertEquals(5, result.getDepth());
+        assertTrue(result.isMate());
+        assertEquals(3, result.getMovesToMate());
+    }
+
+    @Test
+    public void winsMaterialTest() {
+        // The knight on d5 is undefended
+        Board board = new Board("4k3/8/8/3n4/8/8/3R4/4K3 w - - 0 1");
+        SearchResult result = new Search().search(board, SearchLimits.depth(3));
+        assertEquals(new Move(Square.of("d2"), Square.of("d5")), result.getBestMove());
+        assertTrue(result.getScore() > 300);
+    }
+
+    @Test
+    public void gameOverTest() {
+        Board mated = new Board("rnb1kbnr/pppp1ppp/8/4p3/6Pq/5P2/PPPPP2P/RNBQKBNR w KQkq - 1 3");
+        SearchResult result = new Search().search(mated, SearchLimits.depth(3));
+        assertNull(result.getBestMove());
+        assertEquals(-Search.MATE_SCORE, result.getScore());
+
+        Board stalemate = new Board("7k/5Q2/6K1/8/8/8/8/8 b - - 0 1");
+        result = new Search().search(stalemate, SearchLimits.depth(3));
+        assertNull(result.getBestMove());
+        assertEquals(0, result.getScore());
+    }
+
+    @Test
+    public void limitsTest() {
+        Board board = new Board();
+        String fen = board.toFEN();
+        Search search = new Search();
+
+        SearchResult result = search.search(board, SearchLimits.depth(3));
+        assertEquals(3, result.getDepth());
+        assertEquals(3, result.getPrincipalVariation().size());
+        assertEquals(fen, board.toFEN());
+
+        result = search.search(board, SearchLimits.nodes(5000));
+        assertTrue(result.getNodes() <= 5000);
+        assertTrue(result.getBestMove() != null);
+
+        long start = System.nanoTime();
+        result = search.search(board, SearchLimits.time(200));
+        assertTrue(System.nanoTime() - start < 1_000_000_000L);
+        assertTrue(result.getBestMove() != null);
+    }
+
+    @Test
+    public void firstIterationTest() {
+        // The iteration of depth 1 is finished even if the limits are reached in it
+        Board board = new Board("r1bqkbnr/pppp1ppp/2n5/4p3/3PP3/5N2/PPP2PPP/RNBQKB1R b KQkq - 0 3");
+        SearchResult expected = new Search().search(board, SearchLimits.depth(1));
+        for (long nodes : new long[] { 1, 5, 30 }) {
+            SearchResult result = new Search().search(board, SearchLimits.nodes(nodes));
+            assertEquals(1, result.getDepth());
+            assertEquals(expected.getScore(), result.getScore());
+            assertEquals(expected.getBestMove(), result.getBestMove());
+            assertEquals(expected.getNodes(), result.getNodes());
+        }
+    }
+}
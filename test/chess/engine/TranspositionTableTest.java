@@ -0,0 +1,61 @@
+package chess.engine;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import chess.core.Board;
+import chess.core.MoveList;
+import chess.core.PackedMove;
+
+public class TranspositionTableTest {
+    @Test
+    public void storeAndProbeTest() {
+        TranspositionTable table = new TranspositionTable(1);
+        assertEquals(1 << 16, table.getCapacity());
+
+        Board board = new Board();
+        MoveList moves = new MoveList();
+        board.generateMoves(moves);
+        int move = moves.get(0);
+        long key = board.getPositionKey();
+        assertEquals(TranspositionTable.NONE, table.probe(key));
+
+        table.store(key, move, -Search.MATE_SCORE + 3, 12, TranspositionTable.BOUND_LOWER);
+        long entry = table.probe(key);
+        assertEquals(move, TranspositionTable.getMove(entry));
+        assertEquals(-Search.MATE_SCORE + 3, TranspositionTable.getScore(entry));
+        assertEquals(12, TranspositionTable.getDepth(entry));
+        assertEquals(TranspositionTable.BOUND_LOWER, TranspositionTable.getBound(entry));
+
+        // Another key of the same slot misses
+        assertEquals(TranspositionTable.NONE, table.probe(key ^ (1L << 40)));
+
+        table.clear();
+        assertEquals(TranspositionTable.NONE, table.probe(key));
+    }
+
+    @Test
+    public void replacementTest() {
+        TranspositionTable table = new TranspositionTable(1);
+        long key = 0x1234_5678_9ABC_DEF0L, other = key ^ (1L << 40);
+        int move = PackedMove.of(52, 36, PackedMove.FLAG_DOUBLE_PUSH);
+
+        table.store(key, move, 10, 8, TranspositionTable.BOUND_EXACT);
+        // A shallower result of another position doesn't replace the entry
+        table.store(other, PackedMove.NONE, 20, 3, TranspositionTable.BOUND_UPPER);
+        assertEquals(8, TranspositionTable.getDepth(table.probe(key)));
+        assertEquals(TranspositionTable.NONE, table.probe(other));
+
+        // The same position keeps its best move if the new result has none
+        table.store(key, PackedMove.NONE, -5, 2, TranspositionTable.BOUND_UPPER);
+        assertEquals(move, TranspositionTable.getMove(table.probe(key)));
+        assertEquals(-5, TranspositionTable.getScore(table.probe(key)));
+
+        // Entries of an earlier search are always replaced
+        table.newSearch();
+        table.store(other, PackedMove.NONE, 20, 1, TranspositionTable.BOUND_UPPER);
+        assertEquals(TranspositionTable.NONE, table.probe(key));
+        assertEquals(20, TranspositionTable.getScore(table.probe(other)));
+    }
+}